@@ -0,0 +1,92 @@
+package bench;
+
+import cpu.AluTables;
+import cpu.CpuView;
+
+import static cpu.CpuState.*;
+
+// Classe AluTablesCheck
+// Vérification exhaustive des tables de l'ALU (cpu.AluTables) contre une implémentation de
+// référence indépendante, avant les mesures du Benchmark. Hors du chemin d'exécution : les
+// tables elles-mêmes ne contiennent que les valeurs pré-calculées.
+final class AluTablesCheck {
+
+    private AluTablesCheck() {
+    }
+
+    // Vérification exhaustive des tables contre une implémentation de référence indépendante
+    // (arithmétique signée/non signée explicite). Retourne le nombre d'entrées vérifiées,
+    // lève IllegalStateException à la première différence.
+    static int verify() {
+        int checked = 0;
+        for (int a = 0; a < 0x100; a++) {
+            int sa = (byte) a; // Valeur signée
+            for (int b = 0; b < 0x100; b++) {
+                int sb = (byte) b;
+                int index = (a << 8) | b;
+
+                // Addition : C = dépassement non signé, V = dépassement signé, H = retenue du quartet bas
+                int sum = (a + b) & 0xFF;
+                int signedSum = sa + sb;
+                check("ADD", a, b, AluTables.ADD[index], sum,
+                        reference(sum, a + b > 255, signedSum < -128 || signedSum > 127, (a & 0xF) + (b & 0xF) > 0xF));
+                checked++;
+
+                // Soustraction : C = emprunt (b > a en non signé), V = dépassement signé
+                int diff = (a - b) & 0xFF;
+                int signedDiff = sa - sb;
+                check("SUB", a, b, AluTables.SUB[index], diff,
+                        reference(diff, b > a, signedDiff < -128 || signedDiff > 127, false));
+                checked++;
+            }
+
+            check("INC", a, 0, AluTables.INC[a], (a + 1) & 0xFF, reference((a + 1) & 0xFF, false, sa + 1 > 127, false));
+            check("DEC", a, 0, AluTables.DEC[a], (a - 1) & 0xFF, reference((a - 1) & 0xFF, false, sa - 1 < -128, false));
+            check("COM", a, 0, AluTables.COM[a], 255 - a, reference(255 - a, true, false, false));
+
+            // Décalages : V = N xor C après décalage à gauche
+            int shl = (a * 2) & 0xFF;
+            boolean carryOut = a >= 0x80;
+            check("LSL", a, 0, AluTables.LSL[a], shl, reference(shl, carryOut, ((shl >= 0x80) != carryOut), false));
+            check("LSR", a, 0, AluTables.LSR[a], a / 2, reference(a / 2, a % 2 == 1, false, false));
+            for (int carry = 0; carry < 2; carry++) {
+                int rol = (shl + carry) & 0xFF;
+                check("ROL", a, carry, AluTables.ROL[(carry << 8) | a], rol, reference(rol, carryOut, ((rol >= 0x80) != carryOut), false));
+                int ror = a / 2 + carry * 0x80;
+                check("ROR", a, carry, AluTables.ROR[(carry << 8) | a], ror, reference(ror, a % 2 == 1, false, false));
+                checked += 2;
+            }
+            checked += 5;
+        }
+        return checked;
+    }
+
+    private static int reference(int result, boolean carry, boolean overflow, boolean halfCarry) {
+        int flags = 0;
+        if (result >= 0x80) flags |= CC_N;
+        if (result == 0) flags |= CC_Z;
+        if (overflow) flags |= CC_V;
+        if (carry) flags |= CC_C;
+        if (halfCarry) flags |= CC_H;
+        return flags;
+    }
+
+    private static void check(String name, int a, int b, int entry, int result, int flags) {
+        int mask = maskOf(name);
+        if ((entry & 0xFF) != result || ((entry >>> 8) & mask) != (flags & mask)) {
+            throw new IllegalStateException("Table " + name + " incorrecte pour " + CpuView.hex8(a) + ", " + CpuView.hex8(b)
+                    + " : " + Integer.toHexString(entry) + " au lieu de " + Integer.toHexString(result | (flags << 8)));
+        }
+    }
+
+    private static int maskOf(String name) {
+        switch (name) {
+            case "ADD": return AluTables.ADD_FLAGS;
+            case "SUB": return AluTables.SUB_FLAGS;
+            case "INC": case "DEC": return AluTables.INC_FLAGS;
+            case "COM": return AluTables.COM_FLAGS;
+            case "LSL": case "ROL": return AluTables.SHL_FLAGS;
+            default: return AluTables.SHR_FLAGS;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package bench;
+
+import cpu.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Locale;
+
+// Classe Benchmark
+// Mesure les chemins critiques de l'interpréteur sans dépendance externe :
+// décodage, familles de l'ALU, accès mémoire, branchements et programmes de référence.
+// Chaque mesure est précédée d'un échauffement (JIT) et affichée en opérations par seconde.
+//
+// Utilisation : java bench.Benchmark [--quick] [fichier.asmb ...]
+public class Benchmark {
+
+    // Programmes de référence (dans le classpath, à côté de cette classe)
+    public static final String[] REFERENCE_PROGRAMS = {
+        "demo.asmb", "boucles.asmb", "arithmetique.asmb", "memoire.asmb"
+    };
+
+    private static long warmupNanos = 500_000_000L;   // Durée d'échauffement par mesure
+    private static long measureNanos = 1_000_000_000L; // Durée de mesure par mesure
+    private static volatile long sink; // Empêche le JIT d'éliminer les calculs
+
+    // Une mesure : exécute un lot d'opérations et retourne le nombre d'opérations effectuées
+    interface Task {
+        long run();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ArrayList<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--quick")) {
+                warmupNanos = 100_000_000L;
+                measureNanos = 200_000_000L;
+            } else {
+                files.add(arg);
+            }
+        }
+
+        // Les tables de l'ALU sont vérifiées avant d'être mesurées
+        System.out.println("=== Tables de l'ALU ===");
+        try {
+            System.out.println("AluTablesCheck.verify : " + AluTablesCheck.verify() + " entrées conformes à la référence");
+        } catch (IllegalStateException e) {
+            System.out.println("AluTablesCheck.verify : " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.println("=== Décodage ===");
+        benchDecode();
+
+        System.out.println("=== ALU (instructions/s) ===");
+        benchAlu("executeADD", "ADDA #$13");
+        benchAlu("executeSUB", "SUBA #$05");
+        benchAlu("executeCMP", "CMPA #$40");
+        benchAlu("executeAND", "ANDA #$7F");
+        benchAlu("executeOR",  "ORA #$01");
+        benchAlu("executeEOR", "EORA #$5A");
+        benchAlu("executeINC", "INCA");
+        benchAlu("executeDEC", "DECB");
+        benchAlu("executeLSL", "LSLA");
+        benchAlu("executeLSR", "LSRA");
+        benchAlu("executeROL", "ROLA");
+        benchAlu("executeROR", "RORA");
+        benchAlu("executeCOM", "COMA");
+        benchAlu("executeNEG", "NEGA");
+        benchAlu("executeLD (indexé)", "LDA 4,X");
+        benchAlu("executeST (étendu)", "STA $0200");
+
+        System.out.println("=== Mémoire ===");
+        benchMemory();
+
+        System.out.println("=== Branchements (instructions/s) ===");
+        benchBranch();
+
+        System.out.println("=== Programmes (instructions/s) ===");
+        if (files.isEmpty()) {
+            for (String name : REFERENCE_PROGRAMS) {
+                benchProgram(name, readResource(name));
+            }
+        } else {
+            for (String file : files) {
+                benchProgram(file, Files.readString(Paths.get(file), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    // Décodage d'une ligne de code en DecodedOp
+    private static void benchDecode() {
+        String[] lines = { "LDA #$50", "STA $0001", "LDA ,X", "ADDA 4,Y", "TFR X,S", "ROLA", "LDX #$0002", "STB $10" };
+        measure("Program.decode", "lignes/s", () -> {
+            long n = 0;
+            for (int i = 0; i < 1000; i++) {
+                for (String line : lines) {
+                    sink += Program.decode(line, 0).length;
+                    n++;
+                }
+            }
+            return n;
+        });
+    }
+
+    // Exécution répétée d'une seule instruction décodée
+    private static void benchAlu(String name, String line) {
+        CPU cpu = new CPU(new Memory());
+        DecodedOp op = Program.decode(line, 0);
+        cpu.state.x = 0x0100;
+        measure(name + " [" + line + "]", "instr/s", () -> {
+            for (int i = 0; i < 10_000; i++) {
+                cpu.executeInstruction(op);
+            }
+            sink += cpu.state.a + cpu.state.getCC();
+            return 10_000;
+        });
+    }
+
+    // Lectures et écritures dans la mémoire de 64 Ko
+    private static void benchMemory() {
+        Memory memory = new Memory();
+        measure("Memory.write8", "écritures/s", () -> {
+            for (int i = 0; i < 0x8000; i++) memory.write8(i, i);
+            return 0x8000;
+        });
+        measure("Memory.read8", "lectures/s", () -> {
+            long sum = 0;
+            for (int i = 0; i < 0x8000; i++) sum += memory.read8(i);
+            sink += sum;
+            return 0x8000;
+        });
+        measure("Memory.read16", "lectures/s", () -> {
+            long sum = 0;
+            for (int i = 0; i < 0x8000; i++) sum += memory.read16(i);
+            sink += sum;
+            return 0x8000;
+        });
+    }
+
+    // Boucle DECB / BNE : coût d'un branchement pris (résolution de la cible comprise)
+    private static void benchBranch() {
+        Program program = Program.fromSource("LDB #$FF\nBOUCLE:\nDECB\nBNE BOUCLE\nEND\n");
+        CPU cpu = new CPU(new Memory());
+        measure("DECB / BNE", "instr/s", () -> {
+            cpu.load(program);
+            return cpu.run(Long.MAX_VALUE);
+        });
+        CPU interpreter = new CPU(new Memory());
+        interpreter.setJitEnabled(false);
+        measure("DECB / BNE (sans JIT)", "instr/s", () -> {
+            interpreter.load(program);
+            return interpreter.run(Long.MAX_VALUE);
+        });
+        measure("DECB / BNE (programme décodé)", "instr/s", () -> {
+            cpu.load(program);
+            return cpu.runDecoded(Long.MAX_VALUE);
+        });
+    }
+
+    // Programme complet : assemblé une fois, exécuté du début jusqu'à END
+    private static void benchProgram(String name, String source) {
+        Program program;
+        try {
+            program = Program.fromSource(source);
+        } catch (IllegalArgumentException e) {
+            System.out.println(name + " : erreur d'assemblage : " + e.getMessage());
+            return;
+        }
+        CPU cpu = new CPU(new Memory());
+        measure(name, "instr/s", () -> {
+            cpu.load(program);
+            return cpu.run(100_000_000L);
+        });
+    }
+
+    // Échauffement puis mesure d'une tâche, affichage du débit
+    private static void measure(String name, String unit, Task task) {
+        long end = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < end) task.run();
+
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operations += task.run();
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < measureNanos);
+
+        double perSecond = operations * 1e9 / elapsed;
+        System.out.println(String.format(Locale.ROOT, "%-40s %,16.0f %s", name, perSecond, unit));
+    }
+
+    // Lecture d'un programme de référence depuis le classpath (bench/programs)
+    static String readResource(String name) throws IOException {
+        try (InputStream in = Benchmark.class.getResourceAsStream("programs/" + name)) {
+            if (in != null) return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Exécution depuis les sources : le dossier n'est pas copié dans le classpath
+        return Files.readString(Paths.get("src", "bench", "programs", name), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,37 @@
+package cpu;
+
+// Classe AccessCounters
+// Compteurs d'accès à la mémoire pour la carte de chaleur : lectures et écritures de l'opérande
+// mémoire de chaque instruction, et exécutions (adresse de l'opcode). Les compteurs ne font
+// qu'augmenter (un dépassement de capacité est sans effet sur les différences entre deux lectures) :
+// l'affichage les lit sans verrou à cadence fixe et ne les modifie jamais.
+public final class AccessCounters {
+
+    final int[] reads = new int[Memory.SIZE];
+    final int[] writes = new int[Memory.SIZE];
+    final int[] executes = new int[Memory.SIZE];
+
+    // Enregistre les accès de l'instruction qui vient d'être exécutée à l'adresse pc
+    void record(CPU cpu, int pc) {
+        executes[pc]++;
+        int address = cpu.operandAddress;
+        if (address < 0) return;
+        Memory memory = cpu.memory;
+        int first = memory.read8(pc), second = memory.read8(pc + 1);
+        int[] counters = TraceWriter.isStore(first == 0x10 || first == 0x11 ? second : first) ? writes : reads;
+        counters[address]++;
+        if (TraceWriter.isWide(first, second)) counters[(address + 1) & 0xFFFF]++;
+    }
+
+    public int getReads(int address) {
+        return reads[address & 0xFFFF];
+    }
+
+    public int getWrites(int address) {
+        return writes[address & 0xFFFF];
+    }
+
+    public int getExecutes(int address) {
+        return executes[address & 0xFFFF];
+    }
+}
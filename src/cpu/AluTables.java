@@ -0,0 +1,81 @@
+package cpu;
+
+import static cpu.CpuState.*;
+
+// Classe AluTables
+// Tables pré-calculées de l'ALU 8 bits : chaque entrée contient le résultat (bits 0-7)
+// et les flags du registre CC (bits 8-15). Une opération devient une simple lecture de tableau,
+// sans calcul de retenue ni de débordement sur le chemin d'exécution.
+//   - opérations binaires : index = (registre << 8) | opérande (64 Ki entrées)
+//   - opérations unaires  : index = valeur (256 entrées), ou (retenue << 8) | valeur pour ROL/ROR
+public final class AluTables {
+
+    // Flags calculés par chaque table
+    public static final int ADD_FLAGS = CC_H | CC_N | CC_Z | CC_V | CC_C;
+    public static final int SUB_FLAGS = CC_N | CC_Z | CC_V | CC_C;   // SUB, CMP, NEG
+    public static final int INC_FLAGS = CC_N | CC_Z | CC_V;          // INC, DEC
+    public static final int COM_FLAGS = CC_N | CC_Z | CC_V | CC_C;
+    public static final int SHL_FLAGS = CC_N | CC_Z | CC_V | CC_C;   // LSL, ROL
+    public static final int SHR_FLAGS = CC_N | CC_Z | CC_C;          // LSR, ROR
+
+    public static final int[] ADD = new int[0x10000];
+    public static final int[] SUB = new int[0x10000];
+    public static final int[] INC = new int[0x100];
+    public static final int[] DEC = new int[0x100];
+    public static final int[] COM = new int[0x100];
+    public static final int[] LSL = new int[0x100];
+    public static final int[] LSR = new int[0x100];
+    public static final int[] ROL = new int[0x200];
+    public static final int[] ROR = new int[0x200];
+
+    private AluTables() {
+    }
+
+    static {
+        for (int a = 0; a < 0x100; a++) {
+            for (int b = 0; b < 0x100; b++) {
+                int index = (a << 8) | b;
+
+                int sum = a + b;
+                int flags = nz(sum);
+                if (sum > 0xFF) flags |= CC_C;
+                if (((a ^ sum) & (b ^ sum) & 0x80) != 0) flags |= CC_V;
+                if (((a ^ b ^ sum) & 0x10) != 0) flags |= CC_H;
+                ADD[index] = pack(sum, flags);
+
+                int diff = a - b;
+                flags = nz(diff);
+                if (diff < 0) flags |= CC_C;
+                if (((a ^ b) & (a ^ diff) & 0x80) != 0) flags |= CC_V;
+                SUB[index] = pack(diff, flags);
+            }
+
+            int inc = a + 1;
+            INC[a] = pack(inc, nz(inc) | (a == 0x7F ? CC_V : 0));
+            int dec = a - 1;
+            DEC[a] = pack(dec, nz(dec) | (a == 0x80 ? CC_V : 0));
+            COM[a] = pack(~a, nz(~a) | CC_C);
+
+            int shlFlags = ((a & 0x80) != 0 ? CC_C : 0) | (((a ^ (a << 1)) & 0x80) != 0 ? CC_V : 0);
+            LSL[a] = pack(a << 1, nz(a << 1) | shlFlags);
+            int shrFlags = (a & 0x01) != 0 ? CC_C : 0;
+            LSR[a] = pack(a >> 1, nz(a >> 1) | shrFlags);
+
+            for (int carry = 0; carry < 2; carry++) {
+                int rol = (a << 1) | carry;
+                ROL[(carry << 8) | a] = pack(rol, nz(rol) | shlFlags);
+                int ror = (carry << 7) | (a >> 1);
+                ROR[(carry << 8) | a] = pack(ror, nz(ror) | shrFlags);
+            }
+        }
+    }
+
+    // Résultat 8 bits et flags réunis dans un entier
+    private static int pack(int result, int flags) {
+        return (result & 0xFF) | (flags << 8);
+    }
+
+    private static int nz(int result) {
+        return ((result & 0x80) != 0 ? CC_N : 0) | ((result & 0xFF) == 0 ? CC_Z : 0);
+    }
+}
@@ -0,0 +1,732 @@
+package cpu;
+
+import cpu.Instruction.AddressingMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Classe Assembler
+// Assembleur en deux passes du source 6809 vers le code machine (Program) et sa liste d'assemblage.
+// Premier passage : taille de chaque ligne et valeur des symboles (labels, EQU), avec ORG, FCB, FDB
+// et RMB. Le mode de chaque opérande (direct ou étendu, taille de l'offset indexé) y est choisi une
+// fois pour toutes d'après sa valeur ; une référence en avant prend la forme longue, < et > forcent
+// la forme courte ou longue. Second passage : évaluation des expressions (LABEL+2, *-1, $FF, %1010, 'A'),
+// encodage des opérandes, des post-bytes indexés et des offsets relatifs sur 8 ou 16 bits.
+// Toutes les erreurs sont collectées (une par ligne) dans program.errors au lieu de s'arrêter à la première.
+// Un nombre sans préfixe est décimal : s'il vaut 10 ou plus, il se lit différemment en hexadécimal
+// (#10 charge $0A) et un avertissement est ajouté à program.warnings ; &10 confirme le décimal.
+public final class Assembler {
+
+    // Directives reconnues en plus des instructions
+    private static final String[] DIRECTIVES = { "ORG", "EQU", "FCB", "FDB", "RMB" };
+
+    // Choix du premier passage pour un opérande mémoire (modes[]) et taille d'un offset indexé (widths[])
+    private static final int DIRECT = 1, EXTENDED = 2;
+
+    // Erreur sur une ligne du source (numéro à partir de 0)
+    public static final class AssemblyError {
+        public final int line;
+        public final String message;
+
+        AssemblyError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "Ligne " + (line + 1) + " : " + message;
+        }
+    }
+
+    // Ligne du source découpée en label, mnémonique et opérande (sans espaces, en majuscules hors des
+    // caractères 'c'). La découpe ne dépend que du texte de la ligne : elle peut être gardée d'un assemblage à l'autre.
+    public static final class Statement {
+        public final String text;     // Texte d'origine
+        public final String label;    // Label défini par la ligne (null si aucun)
+        public final String mnemonic; // Instruction ou directive (null si aucune)
+        public final String operand;  // Opérande ("" si aucun)
+        public final String error;    // Erreur de syntaxe (null si aucune)
+
+        private Statement(String text, String label, String mnemonic, String operand, String error) {
+            this.text = text;
+            this.label = label;
+            this.mnemonic = mnemonic;
+            this.operand = operand;
+            this.error = error;
+        }
+
+        // Découpe une ligne : "LABEL: MNEMO OPERANDE ; commentaire", ou "SYMBOLE EQU valeur" (label sans ':')
+        public static Statement parse(String text) {
+            // Commentaire retiré, majuscules et espaces conservés pour le découpage en mots
+            StringBuilder sb = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ';') break;
+                if (c == '\'' && i + 1 < text.length()) { // Caractère 'c' ou 'c : recopié tel quel
+                    sb.append(c).append(text.charAt(++i));
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '\'') sb.append(text.charAt(++i));
+                    continue;
+                }
+                sb.append(Character.toUpperCase(c));
+            }
+            String line = sb.toString().trim();
+            if (line.isEmpty()) return new Statement(text, null, null, "", null);
+
+            String label = null;
+            int end = symbolEnd(line, 0);
+            while (end < line.length() && Character.isWhitespace(line.charAt(end))) end++;
+            if (end < line.length() && line.charAt(end) == ':') {
+                label = line.substring(0, end).trim();
+                line = line.substring(end + 1).trim();
+                if (!isSymbol(label)) return new Statement(text, null, null, "", "label invalide : " + label);
+            }
+
+            String mnemonic = firstWord(line);
+            String rest = line.substring(mnemonic.length()).trim();
+            if (label == null && !isKnown(mnemonic) && !rest.isEmpty() && isKnown(firstWord(rest))) {
+                label = mnemonic; // SYMBOLE EQU valeur, TABLE FCB 1,2,3
+                mnemonic = firstWord(rest);
+                rest = rest.substring(mnemonic.length()).trim();
+                if (!isSymbol(label)) return new Statement(text, null, null, "", "label invalide : " + label);
+            }
+            if (mnemonic.isEmpty()) return new Statement(text, label, null, "", null);
+            String operand = removeSpaces(rest);
+            if (!isKnown(mnemonic)) return new Statement(text, label, null, operand, "instruction inconnue : " + mnemonic);
+            return new Statement(text, label, mnemonic, operand, null);
+        }
+
+        private static String firstWord(String line) {
+            int end = 0;
+            while (end < line.length() && !Character.isWhitespace(line.charAt(end))) end++;
+            return line.substring(0, end);
+        }
+
+        // Espaces retirés, sauf dans les caractères 'c'
+        private static String removeSpaces(String text) {
+            StringBuilder sb = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\'' && i + 1 < text.length()) sb.append(c).append(text.charAt(++i));
+                else if (!Character.isWhitespace(c)) sb.append(c);
+            }
+            return sb.toString();
+        }
+    }
+
+    // Programme vide (sans symboles) pour le décodage d'une ligne isolée : il n'est jamais modifié
+    private static final Program NO_SYMBOLS = new Program();
+
+    private final Statement[] statements;
+    private final Program program;
+    private final int[] modes;   // Mode direct ou étendu choisi au premier passage
+    private final int[] widths;  // Taille en bits de l'offset indexé choisie au premier passage
+    private boolean secondPass;
+    private int here;            // Adresse de la ligne en cours (symbole *)
+
+    // Octets de l'instruction en cours d'encodage
+    private final int[] out = new int[5];
+    private int count;
+    private int indexValue, indexReg, postByte; // Opérande indexé décodé (pour DecodedOp)
+
+    // Expression en cours d'évaluation
+    private String text;
+    private int pos;
+    private String undefined; // Premier symbole inconnu de l'expression (null si tous sont définis)
+    private String ambiguous; // Premier nombre décimal sans préfixe qui se lirait autrement en hexadécimal
+
+    private Assembler(Statement[] statements, Program program) {
+        this.statements = statements;
+        this.program = program;
+        modes = new int[statements.length];
+        widths = new int[statements.length];
+    }
+
+    // Assemble un source complet (une entrée par ligne de l'éditeur)
+    public static Program assemble(String source) {
+        String[] lines = source.split("\n");
+        Statement[] statements = new Statement[lines.length];
+        for (int i = 0; i < lines.length; i++) statements[i] = Statement.parse(lines[i]);
+        return assemble(statements);
+    }
+
+    // Assemble des lignes déjà découpées : les erreurs sont dans program.errors
+    public static Program assemble(Statement[] statements) {
+        return new Assembler(statements, new Program()).run();
+    }
+
+    // Assemble une seule instruction à l'adresse FE00, sans symboles (IllegalArgumentException si elle est invalide)
+    static DecodedOp decode(String line, int lineIndex) {
+        Statement statement = Statement.parse(line);
+        if (statement.error != null) throw new IllegalArgumentException("Ligne " + (lineIndex + 1) + " : " + statement.error);
+        if (statement.mnemonic == null || !Instruction.isSupported(statement.mnemonic))
+            throw new IllegalArgumentException("Ligne " + (lineIndex + 1) + " : instruction attendue : " + line.trim());
+        Assembler assembler = new Assembler(new Statement[] { statement }, NO_SYMBOLS);
+        try {
+            assembler.here = Memory.ROM_START;
+            assembler.instruction(0, statement);
+            assembler.secondPass = true;
+            return assembler.instruction(0, statement);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ligne " + (lineIndex + 1) + " : " + e.getMessage());
+        }
+    }
+
+    private Program run() {
+        int lines = statements.length;
+        int[] sizes = new int[lines];
+        boolean[] failed = new boolean[lines];
+        program.statements = statements;
+        program.lineAddress = new int[lines + 1];
+        program.lineBytes = new int[lines][];
+
+        // Premier passage : adresses, tailles et symboles
+        int location = Memory.ROM_START;
+        for (int i = 0; i < lines; i++) {
+            Statement statement = statements[i];
+            here = location;
+            program.lineAddress[i] = location;
+            if (statement.error != null) {
+                error(i, statement.error);
+                failed[i] = true;
+                continue;
+            }
+            try {
+                if ("ORG".equals(statement.mnemonic)) {
+                    location = here = address(defined(statement.operand, "ORG"));
+                    program.lineAddress[i] = location;
+                }
+                IllegalArgumentException duplicate = null; // Label déjà défini : la taille de la ligne compte quand même
+                if (statement.label != null && !"EQU".equals(statement.mnemonic)) {
+                    try {
+                        defineLabel(statement.label, location, i);
+                    } catch (IllegalArgumentException e) {
+                        duplicate = e;
+                    }
+                }
+                if (statement.mnemonic != null) sizes[i] = size(i, statement);
+                if (duplicate != null) throw duplicate;
+            } catch (IllegalArgumentException e) {
+                error(i, e.getMessage());
+                failed[i] = true;
+            }
+            location += sizes[i];
+            if (location > Memory.SIZE) { // Les lignes suivantes ne sont pas assemblées
+                error(i, "le programme dépasse la fin de la mémoire ($FFFF)");
+                Arrays.fill(failed, i, lines, true);
+                Arrays.fill(program.lineAddress, i + 1, lines, Memory.SIZE);
+                location = Memory.SIZE;
+                break;
+            }
+        }
+        program.lineAddress[lines] = location;
+
+        // Second passage : encodage avec tous les symboles connus
+        secondPass = true;
+        int endAddress = Memory.ROM_START;
+        for (int i = 0; i < lines; i++) {
+            Statement statement = statements[i];
+            if (failed[i] || statement.mnemonic == null) continue;
+            here = program.lineAddress[i];
+            ambiguous = null;
+            try {
+                int[] bytes = encode(i, statement);
+                if (ambiguous != null) warning(i, ambiguous);
+                if (bytes == null) continue;
+                if (bytes.length != sizes[i]) throw new IllegalStateException("taille différente entre les deux passages");
+                program.lineBytes[i] = bytes;
+                if (here >= Memory.ROM_START && bytes.length > 0) endAddress = Math.max(endAddress, here + bytes.length);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                error(i, e.getMessage());
+            }
+        }
+        program.endAddress = endAddress;
+
+        checkEnd();
+        program.errors.sort((a, b) -> Integer.compare(a.line, b.line));
+        program.warnings.removeIf(warning -> program.errors.stream().anyMatch(error -> error.line == warning.line));
+        return program;
+    }
+
+    private void error(int line, String message) {
+        program.errors.add(new AssemblyError(line, message));
+    }
+
+    private void warning(int line, String message) {
+        program.warnings.add(new AssemblyError(line, message));
+    }
+
+    // La dernière instruction (hors directives de données) doit être END
+    private void checkEnd() {
+        for (int i = statements.length - 1; i >= 0; i--) {
+            String mnemonic = statements[i].mnemonic;
+            if (mnemonic == null || isDirective(mnemonic)) continue;
+            if (!mnemonic.equals("END")) error(i, "le programme doit se terminer par l'instruction END");
+            return;
+        }
+        error(0, "le programme doit se terminer par l'instruction END");
+    }
+
+    private void defineLabel(String label, int value, int line) {
+        defineSymbol(label, value);
+        program.labels.put(label, line);
+        program.labelAddress.put(label, value);
+    }
+
+    private void defineSymbol(String name, int value) {
+        if (program.symbols.containsKey(name)) throw new IllegalArgumentException("symbole déjà défini : " + name);
+        program.symbols.put(name, value);
+    }
+
+    // Taille d'une ligne au premier passage (EQU : définition du symbole)
+    private int size(int line, Statement statement) {
+        switch (statement.mnemonic) {
+            case "ORG":
+                return 0;
+            case "EQU":
+                if (statement.label == null) throw new IllegalArgumentException("EQU sans symbole à définir");
+                defineSymbol(statement.label, defined(statement.operand, "EQU"));
+                return 0;
+            case "RMB": {
+                int size = defined(statement.operand, "RMB");
+                if (size < 0 || size > Memory.SIZE) throw new IllegalArgumentException("taille invalide pour RMB : " + size);
+                return size;
+            }
+            case "FCB":
+                return items(statement.operand).size();
+            case "FDB":
+                return 2 * items(statement.operand).size();
+            default:
+                return instruction(line, statement).length;
+        }
+    }
+
+    // Octets d'une ligne au second passage (null pour les directives qui ne produisent rien)
+    private int[] encode(int line, Statement statement) {
+        switch (statement.mnemonic) {
+            case "ORG": case "EQU": case "RMB":
+                return null;
+            case "FCB": {
+                ArrayList<String> items = items(statement.operand);
+                int[] bytes = new int[items.size()];
+                for (int i = 0; i < bytes.length; i++) bytes[i] = range(evaluate(items.get(i)), -128, 255, "octet") & 0xFF;
+                return bytes;
+            }
+            case "FDB": {
+                ArrayList<String> items = items(statement.operand);
+                int[] bytes = new int[2 * items.size()];
+                for (int i = 0; i < items.size(); i++) {
+                    int value = range(evaluate(items.get(i)), -32768, 65535, "mot");
+                    bytes[2 * i] = (value >> 8) & 0xFF;
+                    bytes[2 * i + 1] = value & 0xFF;
+                }
+                return bytes;
+            }
+            default: {
+                DecodedOp op = instruction(line, statement);
+                program.instructions.add(op);
+                program.byAddress[op.address] = op;
+                return op.bytes;
+            }
+        }
+    }
+
+    // Liste de valeurs séparées par des virgules (hors caractères 'c')
+    private static ArrayList<String> items(String operand) {
+        ArrayList<String> items = new ArrayList<>();
+        if (operand.isEmpty()) throw new IllegalArgumentException("valeur attendue");
+        int start = 0;
+        for (int i = 0; i < operand.length(); i++) {
+            char c = operand.charAt(i);
+            if (c == '\'') { // Caractère 'c' ou 'c : la virgule éventuelle n'est pas un séparateur
+                i++;
+                if (i + 1 < operand.length() && operand.charAt(i + 1) == '\'') i++;
+            } else if (c == ',') {
+                items.add(operand.substring(start, i));
+                start = i + 1;
+            }
+        }
+        items.add(operand.substring(start));
+        for (String item : items) if (item.isEmpty()) throw new IllegalArgumentException("valeur manquante dans la liste : " + operand);
+        return items;
+    }
+
+    // Encode une instruction : au premier passage les valeurs inconnues valent 0, seule la taille compte
+    private DecodedOp instruction(int line, Statement statement) {
+        String mnemonic = statement.mnemonic, operand = statement.operand;
+        Opcode opcode = Opcode.fromMnemonic(mnemonic);
+        if (opcode == null) throw new IllegalArgumentException("opcode non supporté : " + mnemonic);
+        count = 0;
+        AddressingMode mode;
+        int value = 0, reg = CpuState.REG_NONE, target = -1;
+        String label = null;
+        postByte = -1;
+
+        if (Instruction.opcodeHex(mnemonic, AddressingMode.registerOnly) != null) { // TFR, EXG
+            mode = AddressingMode.registerOnly;
+            String[] regs = operand.split(",");
+            if (regs.length != 2) throw new IllegalArgumentException("deux registres attendus (ex. " + mnemonic + " A,B) : " + operand);
+            value = Integer.parseInt(Instruction.getRegisterCode(regs[0]) + Instruction.getRegisterCode(regs[1]), 16);
+            opcode(mnemonic, mode);
+            emit(value);
+        } else if (operand.isEmpty()) {
+            mode = AddressingMode.inherent;
+            if (Instruction.opcodeHex(mnemonic, mode) == null) throw new IllegalArgumentException("opérande manquant pour " + mnemonic);
+            opcode(mnemonic, mode);
+        } else if (Instruction.opcodeHex(mnemonic, AddressingMode.relative) != null && opcode != Opcode.JMP) {
+            mode = AddressingMode.relative; // Branchement : offset depuis l'adresse qui suit l'instruction
+            opcode(mnemonic, mode);
+            boolean wide = mnemonic.startsWith("L");
+            target = address(evaluate(operand));
+            int offset = target - (here + count + (wide ? 2 : 1));
+            if (wide) {
+                emit16(offset);
+            } else {
+                if (secondPass && (offset < -128 || offset > 127))
+                    throw new IllegalArgumentException("branchement hors de portée (" + offset + " octets), utilisez L" + mnemonic);
+                emit(offset);
+            }
+            label = operand;
+        } else if (operand.startsWith("#")) {
+            mode = AddressingMode.immediat;
+            opcode(mnemonic, mode);
+            value = evaluate(operand.substring(1));
+            if (CpuState.isWide(opcode.reg)) {
+                value = range(value, -32768, 65535, "valeur immédiate sur 16 bits") & 0xFFFF;
+                emit16(value);
+            } else {
+                value = range(value, -128, 255, "valeur immédiate sur 8 bits") & 0xFF;
+                emit(value);
+            }
+        } else if (operand.startsWith("[") || operand.indexOf(',') >= 0) {
+            mode = AddressingMode.indexe;
+            opcode(mnemonic, mode);
+            indexed(line, operand);
+            value = indexValue;
+            reg = indexReg;
+        } else {
+            char force = operand.charAt(0) == '<' || operand.charAt(0) == '>' ? operand.charAt(0) : 0;
+            value = evaluate(force != 0 ? operand.substring(1) : operand);
+            if (!secondPass) {
+                boolean direct = force == '<' || (force == 0 && undefined == null && value >= 0 && value <= 0xFF);
+                if (direct && Instruction.opcodeHex(mnemonic, AddressingMode.direct) == null) {
+                    if (force == '<') throw new IllegalArgumentException("mode direct non valide pour " + mnemonic);
+                    direct = false;
+                }
+                modes[line] = direct ? DIRECT : EXTENDED;
+            }
+            if (modes[line] == DIRECT) {
+                mode = AddressingMode.direct;
+                opcode(mnemonic, mode);
+                if (secondPass && (value & 0xFF00) != 0) throw new IllegalArgumentException("adresse hors de la page directe : " + operand);
+                value &= 0xFF;
+                emit(value);
+            } else {
+                mode = AddressingMode.etendu;
+                opcode(mnemonic, mode);
+                value = address(value);
+                emit16(value);
+                if (opcode == Opcode.JMP) target = value;
+            }
+        }
+
+        int[] bytes = Arrays.copyOf(out, count);
+        DecodedOp op = new DecodedOp(opcode, mode, value, reg, label, line, bytes.length);
+        op.address = here;
+        op.bytes = bytes;
+        op.cycles = Cycles.of(bytes);
+        op.target = target;
+        op.postByte = postByte;
+        return op;
+    }
+
+    // Octets de l'opcode (1 ou 2 avec le préfixe de page 10/11)
+    private void opcode(String mnemonic, AddressingMode mode) {
+        String hex = Instruction.opcodeHex(mnemonic, mode);
+        if (hex == null) throw new IllegalArgumentException("mode " + mode + " non valide pour " + mnemonic);
+        for (int i = 0; i < hex.length(); i += 2) emit(Integer.parseInt(hex.substring(i, i + 2), 16));
+    }
+
+    private void emit(int value) {
+        out[count++] = value & 0xFF;
+    }
+
+    private void emit16(int value) {
+        emit(value >> 8);
+        emit(value);
+    }
+
+    // Mode indexé : n,R  ,R  ,R+  ,R++  ,-R  ,--R  A,R  B,R  D,R  n,PCR et leurs formes indirectes [ ], [n]
+    private void indexed(int line, String operand) {
+        boolean indirect = operand.startsWith("[");
+        if (indirect) {
+            if (!operand.endsWith("]")) throw new IllegalArgumentException("crochet fermant attendu : " + operand);
+            operand = operand.substring(1, operand.length() - 1);
+            if (operand.indexOf(',') < 0) { // [n] : indirect étendu
+                postByte = 0x9F;
+                indexReg = CpuState.REG_NONE;
+                indexValue = address(evaluate(operand));
+                emit(postByte);
+                emit16(indexValue);
+                return;
+            }
+        }
+        int indirectBit = indirect ? 0x10 : 0;
+        int comma = operand.lastIndexOf(',');
+        String offset = operand.substring(0, comma), register = operand.substring(comma + 1);
+
+        int increment = 0; // ,R+ (1) ,R++ (2) ,-R (-1) ,--R (-2)
+        if (register.endsWith("++")) increment = 2;
+        else if (register.endsWith("+")) increment = 1;
+        else if (register.startsWith("--")) increment = -2;
+        else if (register.startsWith("-")) increment = -1;
+        register = register.substring(increment < 0 ? -increment : 0, register.length() - (increment > 0 ? increment : 0));
+
+        if (register.equals("PCR") || register.equals("PC")) {
+            if (increment != 0) throw new IllegalArgumentException("auto-incrément impossible sur PC : " + operand);
+            pcRelative(line, offset, register.equals("PCR"), indirectBit);
+            return;
+        }
+        int rr;
+        switch (register) {
+            case "X": rr = 0; break;
+            case "Y": rr = 1; break;
+            case "U": rr = 2; break;
+            case "S": rr = 3; break;
+            default: throw new IllegalArgumentException("registre d'index invalide : " + register);
+        }
+        indexReg = CpuState.REG_X + rr;
+        indexValue = 0;
+        rr <<= 5;
+
+        if (increment != 0) {
+            if (!offset.isEmpty()) throw new IllegalArgumentException("pas d'offset avec l'auto-incrément : " + operand);
+            if (indirect && (increment == 1 || increment == -1))
+                throw new IllegalArgumentException("mode indirect impossible avec ,R+ ou ,-R : " + operand);
+            int code = increment == 1 ? 0x80 : increment == 2 ? 0x81 : increment == -1 ? 0x82 : 0x83;
+            indexedByte(code | rr | indirectBit);
+            return;
+        }
+        switch (offset) {
+            case "":  indexedByte(0x84 | rr | indirectBit); return; // ,R
+            case "B": indexedByte(0x85 | rr | indirectBit); return; // B,R
+            case "A": indexedByte(0x86 | rr | indirectBit); return; // A,R
+            case "D": indexedByte(0x8B | rr | indirectBit); return; // D,R
+            default:
+        }
+
+        char force = offset.charAt(0) == '<' || offset.charAt(0) == '>' ? offset.charAt(0) : 0;
+        int value = evaluate(force != 0 ? offset.substring(1) : offset);
+        if (!secondPass) {
+            widths[line] = force == '<' ? 8 : force == '>' ? 16 : undefined != null ? 16
+                    : value == 0 ? 0 : !indirect && value >= -16 && value <= 15 ? 5
+                    : value >= -128 && value <= 127 ? 8 : 16;
+        }
+        switch (widths[line]) {
+            case 0:
+                indexedByte(0x84 | rr | indirectBit);
+                break;
+            case 5:
+                indexedByte(rr | (value & 0x1F));
+                indexValue = value;
+                break;
+            case 8:
+                indexedByte(0x88 | rr | indirectBit);
+                indexValue = range(value, -128, 127, "offset sur 8 bits");
+                emit(indexValue);
+                break;
+            default:
+                indexedByte(0x89 | rr | indirectBit);
+                indexValue = (short) range(value, -32768, 65535, "offset sur 16 bits");
+                emit16(indexValue);
+        }
+    }
+
+    // n,PCR : l'expression est une adresse, l'offset est calculé depuis l'instruction suivante ; n,PC : offset tel quel
+    private void pcRelative(int line, String offset, boolean address, int indirectBit) {
+        if (offset.isEmpty()) throw new IllegalArgumentException("offset attendu avant ,PC");
+        char force = offset.charAt(0) == '<' || offset.charAt(0) == '>' ? offset.charAt(0) : 0;
+        int value = evaluate(force != 0 ? offset.substring(1) : offset);
+        int next8 = here + count + 2; // Adresse suivante avec un offset sur 8 bits
+        if (!secondPass) {
+            int estimate = address ? value - next8 : value;
+            widths[line] = force == '<' ? 8 : force == '>' ? 16 : undefined != null ? 16
+                    : estimate >= -128 && estimate <= 127 ? 8 : 16;
+        }
+        indexReg = CpuState.REG_PC;
+        if (widths[line] == 8) {
+            indexedByte(0x8C | indirectBit);
+            indexValue = range(address ? value - next8 : value, -128, 127, "offset sur 8 bits");
+            emit(indexValue);
+        } else {
+            indexedByte(0x8D | indirectBit);
+            indexValue = (short) (address ? value - (next8 + 1) : range(value, -32768, 65535, "offset sur 16 bits"));
+            emit16(indexValue);
+        }
+    }
+
+    private void indexedByte(int value) {
+        postByte = value;
+        emit(value);
+    }
+
+    // Valeur vérifiée au second passage (au premier, une valeur inconnue vaut 0)
+    private int range(int value, int min, int max, String what) {
+        if (secondPass && (value < min || value > max)) throw new IllegalArgumentException(what + " hors limites : " + value);
+        return value;
+    }
+
+    private int address(int value) {
+        return range(value, -32768, 0xFFFF, "adresse") & 0xFFFF;
+    }
+
+    // Expression dont tous les symboles doivent être définis dès le premier passage (ORG, EQU, RMB)
+    private int defined(String expression, String directive) {
+        if (expression.isEmpty()) throw new IllegalArgumentException("valeur attendue après " + directive);
+        int value = evaluate(expression);
+        if (undefined != null) throw new IllegalArgumentException(directive + " : symbole non défini avant cette ligne : " + undefined);
+        return value;
+    }
+
+    // Évalue une expression : + - * / et parenthèses, nombres $hex %binaire @octal décimal &décimal 'c', symboles, * (adresse de la ligne)
+    private int evaluate(String expression) {
+        text = expression;
+        pos = 0;
+        undefined = null;
+        if (text.isEmpty()) throw new IllegalArgumentException("valeur attendue");
+        int value = sum();
+        if (pos != text.length()) throw new IllegalArgumentException("expression invalide : " + expression);
+        if (secondPass && undefined != null) {
+            boolean hex = undefined.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+            throw new IllegalArgumentException("symbole non défini : " + undefined
+                    + (hex ? " (nombre hexadécimal : écrire $" + undefined + ")" : ""));
+        }
+        return value;
+    }
+
+    private int sum() {
+        int value = product();
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '+') { pos++; value += product(); }
+            else if (c == '-') { pos++; value -= product(); }
+            else break;
+        }
+        return value;
+    }
+
+    private int product() {
+        int value = unary();
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '*') { pos++; value *= unary(); }
+            else if (c == '/') {
+                pos++;
+                int divisor = unary();
+                if (divisor == 0) {
+                    if (undefined == null) throw new IllegalArgumentException("division par zéro : " + text);
+                    divisor = 1; // Symbole encore inconnu au premier passage
+                }
+                value /= divisor;
+            } else break;
+        }
+        return value;
+    }
+
+    private int unary() {
+        if (pos < text.length() && text.charAt(pos) == '-') { pos++; return -unary(); }
+        if (pos < text.length() && text.charAt(pos) == '+') { pos++; return unary(); }
+        return primary();
+    }
+
+    private int primary() {
+        if (pos >= text.length()) throw new IllegalArgumentException("expression incomplète : " + text);
+        char c = text.charAt(pos);
+        switch (c) {
+            case '(': {
+                pos++;
+                int value = sum();
+                if (pos >= text.length() || text.charAt(pos) != ')') throw new IllegalArgumentException("parenthèse fermante attendue : " + text);
+                pos++;
+                return value;
+            }
+            case '*': pos++; return here;
+            case '$': pos++; return number(16);
+            case '%': pos++; return number(2);
+            case '@': pos++; return number(8);
+            case '&': pos++; return number(10);
+            case '\'': {
+                if (pos + 1 >= text.length()) throw new IllegalArgumentException("caractère attendu après ' : " + text);
+                int value = text.charAt(pos + 1);
+                pos += 2;
+                if (pos < text.length() && text.charAt(pos) == '\'') pos++;
+                return value;
+            }
+            default:
+        }
+        if (c >= '0' && c <= '9') {
+            if (c == '0' && pos + 1 < text.length() && text.charAt(pos + 1) == 'X') {
+                pos += 2;
+                return number(16);
+            }
+            int start = pos;
+            int value = number(10);
+            if (value >= 10 && ambiguous == null) {
+                String digits = text.substring(start, pos);
+                ambiguous = digits + " est lu en décimal ($" + String.format("%X", value)
+                        + ") : écrire $" + digits + " pour l'hexadécimal ou &" + digits + " pour le décimal";
+            }
+            return value;
+        }
+        if (isSymbolStart(c)) {
+            int end = symbolEnd(text, pos);
+            String name = text.substring(pos, end);
+            pos = end;
+            Integer value = program.symbols.get(name);
+            if (value != null) return value;
+            if (undefined == null) undefined = name;
+            return 0;
+        }
+        throw new IllegalArgumentException("expression invalide : " + text);
+    }
+
+    private int number(int radix) {
+        int start = pos;
+        long value = 0;
+        while (pos < text.length() && Character.digit(text.charAt(pos), radix) >= 0) {
+            value = value * radix + Character.digit(text.charAt(pos), radix);
+            if (value > 0xFFFFFF) throw new IllegalArgumentException("nombre trop grand : " + text);
+            pos++;
+        }
+        if (pos == start) throw new IllegalArgumentException("nombre invalide : " + text);
+        return (int) value;
+    }
+
+    private static boolean isSymbolStart(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_' || c == '.';
+    }
+
+    // Fin (exclue) du nom de symbole qui commence à start
+    private static int symbolEnd(String text, int start) {
+        int end = start;
+        while (end < text.length()) {
+            char c = text.charAt(end);
+            if (!isSymbolStart(c) && !(c >= '0' && c <= '9')) break;
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isSymbol(String name) {
+        return !name.isEmpty() && isSymbolStart(name.charAt(0)) && symbolEnd(name, 0) == name.length();
+    }
+
+    private static boolean isDirective(String mnemonic) {
+        for (String directive : DIRECTIVES) if (directive.equals(mnemonic)) return true;
+        return false;
+    }
+
+    private static boolean isKnown(String mnemonic) {
+        return Instruction.isSupported(mnemonic) || isDirective(mnemonic);
+    }
+}
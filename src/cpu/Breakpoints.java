@@ -0,0 +1,251 @@
+package cpu;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Classe Breakpoints
+// Points d'arrêt (avant l'exécution d'une adresse), points d'observation (lecture ou écriture
+// d'une adresse mémoire) et conditions (ex. "A == $50", "HITS > 10", "[$0100] != 0 && X >= $0200").
+// Les adresses concernées sont rangées dans des ensembles de 64K bits (long[]) : tant qu'aucun
+// point d'arrêt ne se trouve sur PC, la vérification se limite à un seul test de bit.
+// Les modifications viennent de l'interface (EDT), les vérifications du thread d'exécution :
+// les conditions sont dans une table concurrente, les bits sont lus sans verrou.
+public final class Breakpoints {
+
+    // Types de points d'observation (combinables)
+    public static final int READ = 1, WRITE = 2;
+
+    // Point d'arrêt : condition éventuelle et nombre de passages
+    private static final class Breakpoint {
+        final Condition condition; // null : arrêt à chaque passage
+        long hits;                 // Passages sur l'adresse (condition vraie ou non)
+
+        Breakpoint(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    private final long[] execute = new long[Memory.SIZE / 64];
+    private final long[] read = new long[Memory.SIZE / 64];
+    private final long[] write = new long[Memory.SIZE / 64];
+    private final Map<Integer, Breakpoint> breakpoints = new ConcurrentHashMap<>();
+    private volatile int watchpoints;  // Nombre d'adresses observées
+    private int resume = -1;           // Adresse reprise sans vérification (après un arrêt ou un pas à pas)
+    private String hit;                // Description du dernier arrêt (null si aucun)
+
+    // Vrai si aucun point d'arrêt ni point d'observation n'est posé
+    public boolean isEmpty() {
+        return watchpoints == 0 && breakpoints.isEmpty();
+    }
+
+    // Vrai si un point d'arrêt est posé sur une adresse
+    public boolean has(int address) {
+        return test(execute, address);
+    }
+
+    // Condition d'un point d'arrêt (null si aucun point d'arrêt ou aucune condition)
+    public String getCondition(int address) {
+        Breakpoint breakpoint = breakpoints.get(address & 0xFFFF);
+        return breakpoint == null || breakpoint.condition == null ? null : breakpoint.condition.text;
+    }
+
+    // Pose un point d'arrêt, avec une condition (null ou vide : sans condition), le nombre de passages repart de zéro
+    public synchronized void set(int address, String condition) {
+        address &= 0xFFFF;
+        Condition parsed = condition == null || condition.trim().isEmpty() ? null : Condition.parse(condition);
+        breakpoints.put(address, new Breakpoint(parsed));
+        execute[address >>> 6] |= 1L << address;
+    }
+
+    public synchronized void remove(int address) {
+        address &= 0xFFFF;
+        execute[address >>> 6] &= ~(1L << address);
+        breakpoints.remove(address);
+    }
+
+    // Pose ou retire un point d'arrêt sans condition, retourne vrai s'il est maintenant posé
+    public synchronized boolean toggle(int address) {
+        if (has(address)) {
+            remove(address);
+            return false;
+        }
+        set(address, null);
+        return true;
+    }
+
+    // Types d'accès observés sur une adresse (READ, WRITE, les deux ou 0)
+    public int getWatchpoint(int address) {
+        return (test(read, address) ? READ : 0) | (test(write, address) ? WRITE : 0);
+    }
+
+    // Observe les accès à une adresse (kinds = 0 : plus d'observation)
+    public synchronized void watch(int address, int kinds) {
+        address &= 0xFFFF;
+        if (getWatchpoint(address) != 0) watchpoints--;
+        long bit = 1L << address;
+        read[address >>> 6] = (kinds & READ) != 0 ? read[address >>> 6] | bit : read[address >>> 6] & ~bit;
+        write[address >>> 6] = (kinds & WRITE) != 0 ? write[address >>> 6] | bit : write[address >>> 6] & ~bit;
+        if (kinds != 0) watchpoints++;
+    }
+
+    // Retire tous les points d'arrêt et d'observation
+    public synchronized void clear() {
+        Arrays.fill(execute, 0);
+        Arrays.fill(read, 0);
+        Arrays.fill(write, 0);
+        breakpoints.clear();
+        watchpoints = 0;
+    }
+
+    // L'instruction à cette adresse sera exécutée sans vérification (reprise sur un point d'arrêt)
+    public void resume(int address) {
+        resume = address & 0xFFFF;
+    }
+
+    // Description du dernier arrêt, effacée après lecture (null si l'exécution ne s'est pas arrêtée)
+    public String takeHit() {
+        String description = hit;
+        hit = null;
+        return description;
+    }
+
+    // Vérification avant l'instruction à PC : vrai si l'exécution doit s'arrêter
+    boolean beforeInstruction(CPU cpu) {
+        int pc = cpu.state.pc;
+        if ((execute[pc >>> 6] & (1L << pc)) == 0 || pc == resume) {
+            resume = -1;
+            return false;
+        }
+        Breakpoint breakpoint = breakpoints.get(pc);
+        if (breakpoint == null) return false; // Retiré depuis le test du bit
+        breakpoint.hits++;
+        if (breakpoint.condition != null && !breakpoint.condition.test(cpu, breakpoint.hits)) return false;
+        resume = pc;
+        hit = "Point d'arrêt en " + CpuView.hex16(pc)
+                + (breakpoint.condition != null ? " (" + breakpoint.condition.text + ")" : "");
+        return true;
+    }
+
+    // Vérification après l'instruction commencée à pc : vrai si son opérande mémoire est observé
+    boolean afterInstruction(CPU cpu, int pc) {
+        int address = cpu.operandAddress;
+        if (watchpoints == 0 || address < 0) return false;
+        Memory memory = cpu.memory;
+        int first = memory.read8(pc), second = memory.read8(pc + 1);
+        boolean store = TraceWriter.isStore(first == 0x10 || first == 0x11 ? second : first);
+        long[] watched = store ? write : read;
+        int last = TraceWriter.isWide(first, second) ? (address + 1) & 0xFFFF : address;
+        int found = test(watched, address) ? address : test(watched, last) ? last : -1;
+        if (found < 0) return false;
+        hit = (store ? "Écriture de " : "Lecture de ") + CpuView.hex8(memory.read8(found)) + " en "
+                + CpuView.hex16(found) + " par l'instruction en " + CpuView.hex16(pc);
+        return true;
+    }
+
+    // Vrai si un point d'arrêt dont la condition est vraie se trouve sur PC, sans compter de passage
+    // (retour arrière : l'état du CPU est celui d'avant l'instruction à PC)
+    public boolean matches(CPU cpu) {
+        int pc = cpu.state.pc;
+        if (!test(execute, pc)) return false;
+        Breakpoint breakpoint = breakpoints.get(pc);
+        return breakpoint != null && (breakpoint.condition == null || breakpoint.condition.test(cpu, breakpoint.hits));
+    }
+
+    private static boolean test(long[] bits, int address) {
+        address &= 0xFFFF;
+        return (bits[address >>> 6] & (1L << address)) != 0;
+    }
+
+    // Condition d'arrêt : comparaisons reliées par && (registre, octet mémoire [ADR] ou HITS avec une valeur)
+    static final class Condition {
+        private static final String[] OPERATORS = { "==", "!=", "<=", ">=", "<", ">" };
+        private static final String[] OPERANDS = { "A", "B", "D", "X", "Y", "U", "S", "PC", "DP", "CC", "HITS" };
+        private static final int MEMORY = -1; // Opérande [ADR] : octet en mémoire
+
+        final String text;
+        private final int[] operands;  // Indice dans OPERANDS, ou MEMORY
+        private final int[] addresses; // Adresse de l'octet pour MEMORY
+        private final int[] operators; // Indice dans OPERATORS
+        private final long[] values;
+
+        private Condition(String text, int count) {
+            this.text = text;
+            operands = new int[count];
+            addresses = new int[count];
+            operators = new int[count];
+            values = new long[count];
+        }
+
+        // IllegalArgumentException si la condition est mal écrite
+        static Condition parse(String text) {
+            String[] terms = text.trim().split("&&");
+            Condition condition = new Condition(text.trim(), terms.length);
+            for (int i = 0; i < terms.length; i++) {
+                String term = terms[i].trim().toUpperCase();
+                int operator = -1, at = -1;
+                for (int k = 0; k < OPERATORS.length && operator < 0; k++) {
+                    at = term.indexOf(OPERATORS[k]);
+                    if (at > 0) operator = k;
+                }
+                if (operator < 0) throw new IllegalArgumentException("Comparaison attendue (==, !=, <, <=, >, >=) : " + term);
+
+                String left = term.substring(0, at).trim();
+                if (left.startsWith("[") && left.endsWith("]")) {
+                    condition.operands[i] = MEMORY;
+                    condition.addresses[i] = (int) number(left.substring(1, left.length() - 1)) & 0xFFFF;
+                } else {
+                    condition.operands[i] = Arrays.asList(OPERANDS).indexOf(left);
+                    if (condition.operands[i] < 0) throw new IllegalArgumentException("Registre inconnu : " + left);
+                }
+                condition.operators[i] = operator;
+                condition.values[i] = number(term.substring(at + OPERATORS[operator].length()).trim());
+            }
+            return condition;
+        }
+
+        // Valeur hexadécimale ($50, 0x50) ou décimale (80)
+        private static long number(String text) {
+            try {
+                if (text.startsWith("$")) return Long.parseLong(text.substring(1), 16);
+                if (text.startsWith("0X")) return Long.parseLong(text.substring(2), 16);
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valeur invalide : " + text);
+            }
+        }
+
+        boolean test(CPU cpu, long hits) {
+            CpuState state = cpu.state;
+            for (int i = 0; i < operands.length; i++) {
+                long left;
+                switch (operands[i]) {
+                    case MEMORY: left = cpu.memory.read8(addresses[i]); break;
+                    case 0:  left = state.a; break;
+                    case 1:  left = state.b; break;
+                    case 2:  left = state.getD(); break;
+                    case 3:  left = state.x; break;
+                    case 4:  left = state.y; break;
+                    case 5:  left = state.u; break;
+                    case 6:  left = state.s; break;
+                    case 7:  left = state.pc; break;
+                    case 8:  left = state.dp; break;
+                    case 9:  left = state.getCC(); break;
+                    default: left = hits;
+                }
+                long right = values[i];
+                boolean result;
+                switch (operators[i]) {
+                    case 0:  result = left == right; break;
+                    case 1:  result = left != right; break;
+                    case 2:  result = left <= right; break;
+                    case 3:  result = left >= right; break;
+                    case 4:  result = left < right; break;
+                    default: result = left > right;
+                }
+                if (!result) return false;
+            }
+            return true;
+        }
+    }
+}
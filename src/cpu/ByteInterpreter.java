@@ -0,0 +1,252 @@
+package cpu;
+
+import static cpu.CpuState.*;
+
+import java.util.Arrays;
+
+// Classe ByteInterpreter
+// Cycle fetch-décodage-exécution directement sur les octets en mémoire : l'opcode est lu à
+// l'adresse PC puis exécuté via une table de 256 traitements par page (page 0, préfixes 10 et 11).
+// L'exécution ne dépend donc plus du texte source : code chargé en RAM ou modifié à l'exécution compris.
+// Les cycles d'horloge (table Cycles) sont comptés au décodage : opcode, page et post-byte indexé.
+public final class ByteInterpreter {
+
+    // Traitement d'un opcode : à l'appel, PC pointe sur l'octet qui suit l'opcode
+    interface Handler {
+        void execute(CPU cpu, int opcode);
+    }
+
+    static final Handler[] PAGE0 = new Handler[256];   // Opcodes sans préfixe
+    static final Handler[] PAGE10 = new Handler[256];  // Opcodes préfixés par 10 (LDY, STY, LDS, STS, LBcc)
+    static final Handler[] PAGE11 = new Handler[256];  // Opcodes préfixés par 11 (aucun supporté pour l'instant)
+
+    private ByteInterpreter() {
+    }
+
+    static {
+        Handler illegal = (cpu, opcode) -> {
+            throw new IllegalStateException("Opcode non supporté à l'adresse " + CpuView.hex16(cpu.lastAddress)
+                    + " : " + CpuView.hex8(cpu.memory.read8(cpu.lastAddress)));
+        };
+        Arrays.fill(PAGE0, illegal);
+        Arrays.fill(PAGE10, illegal);
+        Arrays.fill(PAGE11, illegal);
+
+        // Préfixes de page : le second octet est dispatché dans la table de la page
+        PAGE0[0x10] = (cpu, opcode) -> {
+            int next = fetch8(cpu);
+            cpu.state.cycles += Cycles.PAGE10[next];
+            PAGE10[next].execute(cpu, next);
+        };
+        PAGE0[0x11] = (cpu, opcode) -> {
+            int next = fetch8(cpu);
+            cpu.state.cycles += Cycles.PAGE11[next];
+            PAGE11[next].execute(cpu, next);
+        };
+
+        // Chargement et stockage (immédiat, direct, indexé, étendu)
+        family(PAGE0, 0x86, (cpu, opcode) -> cpu.ld(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xC6, (cpu, opcode) -> cpu.ld(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x8E, (cpu, opcode) -> cpu.ld(REG_X, operand16(cpu, opcode)));
+        family(PAGE0, 0xCE, (cpu, opcode) -> cpu.ld(REG_U, operand16(cpu, opcode)));
+        family(PAGE10, 0x8E, (cpu, opcode) -> cpu.ld(REG_Y, operand16(cpu, opcode)));
+        family(PAGE10, 0xCE, (cpu, opcode) -> cpu.ld(REG_S, operand16(cpu, opcode)));
+        memoryModes(PAGE0, 0x97, (cpu, opcode) -> cpu.st(REG_A, address(cpu, opcode)));
+        memoryModes(PAGE0, 0xD7, (cpu, opcode) -> cpu.st(REG_B, address(cpu, opcode)));
+        memoryModes(PAGE0, 0x9F, (cpu, opcode) -> cpu.st(REG_X, address(cpu, opcode)));
+        memoryModes(PAGE0, 0xDF, (cpu, opcode) -> cpu.st(REG_U, address(cpu, opcode)));
+        memoryModes(PAGE10, 0x9F, (cpu, opcode) -> cpu.st(REG_Y, address(cpu, opcode)));
+        memoryModes(PAGE10, 0xDF, (cpu, opcode) -> cpu.st(REG_S, address(cpu, opcode)));
+
+        // Arithmétique et logique 8 bits
+        family(PAGE0, 0x8B, (cpu, opcode) -> cpu.add(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xCB, (cpu, opcode) -> cpu.add(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x80, (cpu, opcode) -> cpu.sub(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xC0, (cpu, opcode) -> cpu.sub(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x81, (cpu, opcode) -> cpu.cmp(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xC1, (cpu, opcode) -> cpu.cmp(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x84, (cpu, opcode) -> cpu.and(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xC4, (cpu, opcode) -> cpu.and(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x8A, (cpu, opcode) -> cpu.or(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xCA, (cpu, opcode) -> cpu.or(REG_B, operand8(cpu, opcode)));
+        family(PAGE0, 0x88, (cpu, opcode) -> cpu.eor(REG_A, operand8(cpu, opcode)));
+        family(PAGE0, 0xC8, (cpu, opcode) -> cpu.eor(REG_B, operand8(cpu, opcode)));
+
+        // Instructions inhérentes sur A (4x) et B (5x)
+        for (int reg : new int[] { REG_A, REG_B }) {
+            int base = reg == REG_A ? 0x40 : 0x50;
+            PAGE0[base]       = (cpu, opcode) -> cpu.neg(reg);
+            PAGE0[base | 0x3] = (cpu, opcode) -> cpu.com(reg);
+            PAGE0[base | 0x4] = (cpu, opcode) -> cpu.lsr(reg);
+            PAGE0[base | 0x6] = (cpu, opcode) -> cpu.ror(reg);
+            PAGE0[base | 0x8] = (cpu, opcode) -> cpu.lsl(reg);
+            PAGE0[base | 0x9] = (cpu, opcode) -> cpu.rol(reg);
+            PAGE0[base | 0xA] = (cpu, opcode) -> cpu.dec(reg);
+            PAGE0[base | 0xC] = (cpu, opcode) -> cpu.inc(reg);
+            PAGE0[base | 0xF] = (cpu, opcode) -> cpu.clr(reg);
+        }
+
+        // Instructions système et transferts
+        PAGE0[0x12] = (cpu, opcode) -> { };                        // NOP
+        PAGE0[0x3F] = (cpu, opcode) -> cpu.state.halted = true;    // SWI / END
+        PAGE0[0x39] = (cpu, opcode) -> {                           // RTS
+            if (cpu.callStack.isEmpty()) cpu.state.halted = true;
+            else jump(cpu, cpu.callStack.pop());
+        };
+        PAGE0[0x1F] = (cpu, opcode) -> cpu.tfr(fetch8(cpu));
+        PAGE0[0x1E] = (cpu, opcode) -> cpu.exg(fetch8(cpu));
+
+        // Sauts et branchements relatifs (offset signé sur 8 bits)
+        PAGE0[0x7E] = (cpu, opcode) -> jump(cpu, fetch16(cpu));      // JMP étendu
+        PAGE0[0x6E] = (cpu, opcode) -> jump(cpu, indexed(cpu));      // JMP indexé
+        PAGE0[0x20] = (cpu, opcode) -> branch(cpu, true);                            // BRA
+        PAGE0[0x24] = (cpu, opcode) -> branch(cpu, !cpu.state.flag(CC_C));           // BCC
+        PAGE0[0x25] = (cpu, opcode) -> branch(cpu, cpu.state.flag(CC_C));            // BCS
+        PAGE0[0x26] = (cpu, opcode) -> branch(cpu, !cpu.state.flag(CC_Z));           // BNE
+        PAGE0[0x27] = (cpu, opcode) -> branch(cpu, cpu.state.flag(CC_Z));            // BEQ
+        PAGE0[0x28] = (cpu, opcode) -> branch(cpu, !cpu.state.flag(CC_V));           // BVC
+        PAGE0[0x29] = (cpu, opcode) -> branch(cpu, cpu.state.flag(CC_V));            // BVS
+        PAGE0[0x2A] = (cpu, opcode) -> branch(cpu, !cpu.state.flag(CC_N));           // BPL
+        PAGE0[0x2B] = (cpu, opcode) -> branch(cpu, cpu.state.flag(CC_N));            // BMI
+
+        // Branchements longs (offset signé sur 16 bits) : LBRA, puis LBcc dans la page 10
+        PAGE0[0x16] = (cpu, opcode) -> longBranch(cpu, true);                        // LBRA
+        PAGE10[0x24] = (cpu, opcode) -> longBranchIf(cpu, !cpu.state.flag(CC_C));      // LBCC
+        PAGE10[0x25] = (cpu, opcode) -> longBranchIf(cpu, cpu.state.flag(CC_C));       // LBCS
+        PAGE10[0x26] = (cpu, opcode) -> longBranchIf(cpu, !cpu.state.flag(CC_Z));      // LBNE
+        PAGE10[0x27] = (cpu, opcode) -> longBranchIf(cpu, cpu.state.flag(CC_Z));       // LBEQ
+        PAGE10[0x28] = (cpu, opcode) -> longBranchIf(cpu, !cpu.state.flag(CC_V));      // LBVC
+        PAGE10[0x29] = (cpu, opcode) -> longBranchIf(cpu, cpu.state.flag(CC_V));       // LBVS
+        PAGE10[0x2A] = (cpu, opcode) -> longBranchIf(cpu, !cpu.state.flag(CC_N));      // LBPL
+        PAGE10[0x2B] = (cpu, opcode) -> longBranchIf(cpu, cpu.state.flag(CC_N));       // LBMI
+    }
+
+    // Exécute une instruction à l'adresse PC
+    public static void step(CPU cpu) {
+        CpuState state = cpu.state;
+        int address = state.pc;
+        int opcode = cpu.memory.read8(address);
+        cpu.lastAddress = address;
+        state.ri = opcode;
+        state.pc = (address + 1) & 0xFFFF;
+        state.cycles += Cycles.PAGE0[opcode];
+        PAGE0[opcode].execute(cpu, opcode);
+    }
+
+    // Enregistre un traitement pour les quatre modes d'une famille (base = opcode immédiat 8x ou Cx)
+    private static void family(Handler[] page, int base, Handler handler) {
+        page[base] = handler;
+        memoryModes(page, base + 0x10, handler);
+    }
+
+    // Modes direct (9x / Dx), indexé (Ax / Ex) et étendu (Bx / Fx)
+    private static void memoryModes(Handler[] page, int direct, Handler handler) {
+        page[direct] = handler;
+        page[direct + 0x10] = handler;
+        page[direct + 0x20] = handler;
+    }
+
+    // Lecture d'un octet à PC, PC avance
+    static int fetch8(CPU cpu) {
+        CpuState state = cpu.state;
+        int value = cpu.memory.read8(state.pc);
+        state.pc = (state.pc + 1) & 0xFFFF;
+        return value;
+    }
+
+    static int fetch16(CPU cpu) {
+        CpuState state = cpu.state;
+        int value = cpu.memory.read16(state.pc);
+        state.pc = (state.pc + 2) & 0xFFFF;
+        return value;
+    }
+
+    // Adresse effective selon les bits 4-5 de l'opcode : 01 direct, 10 indexé, 11 étendu
+    // (mémorisée dans cpu.operandAddress pour la trace d'exécution)
+    static int address(CPU cpu, int opcode) {
+        int address;
+        switch (opcode & 0x30) {
+            case 0x10: address = (cpu.state.dp << 8) | fetch8(cpu); break;
+            case 0x20: address = indexed(cpu); break;
+            case 0x30: address = fetch16(cpu); break;
+            default: throw new IllegalStateException("Mode sans adresse à l'adresse " + CpuView.hex16(cpu.lastAddress));
+        }
+        cpu.operandAddress = address;
+        return address;
+    }
+
+    // Opérande 8 bits : immédiat (bits 4-5 à 00) ou lu en mémoire
+    static int operand8(CPU cpu, int opcode) {
+        if ((opcode & 0x30) == 0) return fetch8(cpu);
+        return cpu.memory.read8(address(cpu, opcode));
+    }
+
+    static int operand16(CPU cpu, int opcode) {
+        if ((opcode & 0x30) == 0) return fetch16(cpu);
+        return cpu.memory.read16(address(cpu, opcode));
+    }
+
+    // Décodage du post-byte indexé : bits 5-6 = registre (X, Y, U, S), bit 4 = indirect
+    static int indexed(CPU cpu) {
+        CpuState state = cpu.state;
+        int postByte = fetch8(cpu);
+        state.cycles += Cycles.INDEXED[postByte];
+        int reg = REG_X + ((postByte >> 5) & 0x3);
+        if ((postByte & 0x80) == 0) {
+            return (state.get(reg) + ((postByte << 27) >> 27)) & 0xFFFF; // n,R : offset signé sur 5 bits
+        }
+
+        int address;
+        switch (postByte & 0x0F) {
+            case 0x0: address = state.get(reg); state.set(reg, address + 1); break;   // ,R+
+            case 0x1: address = state.get(reg); state.set(reg, address + 2); break;   // ,R++
+            case 0x2: address = state.get(reg) - 1; state.set(reg, address); break;   // ,-R
+            case 0x3: address = state.get(reg) - 2; state.set(reg, address); break;   // ,--R
+            case 0x4: address = state.get(reg); break;                                // ,R
+            case 0x5: address = state.get(reg) + (byte) state.b; break;               // B,R
+            case 0x6: address = state.get(reg) + (byte) state.a; break;               // A,R
+            case 0x8: address = state.get(reg) + (byte) fetch8(cpu); break;           // n,R sur 8 bits
+            case 0x9: address = state.get(reg) + (short) fetch16(cpu); break;         // n,R sur 16 bits
+            case 0xB: address = state.get(reg) + (short) state.getD(); break;         // D,R
+            case 0xC: { int offset = (byte) fetch8(cpu); address = state.pc + offset; break; }   // n,PCR sur 8 bits
+            case 0xD: { int offset = (short) fetch16(cpu); address = state.pc + offset; break; } // n,PCR sur 16 bits
+            case 0xF:                                                                  // [n] : indirect étendu
+                if (postByte != 0x9F) throw illegalPostByte(cpu, postByte);
+                address = fetch16(cpu);
+                break;
+            default: throw illegalPostByte(cpu, postByte);
+        }
+        address &= 0xFFFF;
+        if ((postByte & 0x10) != 0) address = cpu.memory.read16(address); // Mode indirect [ ]
+        return address;
+    }
+
+    private static IllegalStateException illegalPostByte(CPU cpu, int postByte) {
+        return new IllegalStateException("Post-byte indexé invalide à l'adresse " + CpuView.hex16(cpu.lastAddress)
+                + " : " + CpuView.hex8(postByte));
+    }
+
+    // Branchement relatif : l'offset est toujours lu, le saut n'a lieu que si la condition est vraie
+    private static void branch(CPU cpu, boolean taken) {
+        int offset = (byte) fetch8(cpu);
+        if (taken) jump(cpu, cpu.state.pc + offset);
+    }
+
+    private static void longBranch(CPU cpu, boolean taken) {
+        int offset = (short) fetch16(cpu);
+        if (taken) jump(cpu, cpu.state.pc + offset);
+    }
+
+    // LBcc : un cycle de plus si le branchement est pris (LBRA dure toujours 5 cycles)
+    private static void longBranchIf(CPU cpu, boolean taken) {
+        if (taken) cpu.state.cycles++;
+        longBranch(cpu, taken);
+    }
+
+    // Saut : une cible juste après le programme en ROM (label final) termine l'exécution
+    static void jump(CPU cpu, int target) {
+        target &= 0xFFFF;
+        cpu.state.pc = target;
+        if (target == cpu.memory.getRomEnd()) cpu.state.halted = true;
+    }
+}
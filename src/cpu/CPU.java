@@ -1,8 +1,8 @@
 package cpu;
 
-import java.util.LinkedHashMap;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseEvent;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,155 +15,550 @@ public class CPU {
     // Déclaration des composants principaux du CPU
     private RAM ram;               // Mémoire RAM
     private ROM rom;               // Mémoire ROM
-    private Registers A, B, X, Y, U, S, PC, DP; // Registres principaux
-    private Registers N, Z, V, C, H; // Flags
-    private ControlPanel RI;       // Panneau de contrôle
-    private BitDisplay binA, binB; // Affichage binaire des registres A et B
-    private java.util.Stack<Integer> callStack = new java.util.Stack<>(); // Pile pour les appels
-    private ALU alu;               // Unité arithmétique et logique
+    public final Memory memory;    // Espace d'adressage de 64 Ko
+    private CpuView view;          // Vue graphique des registres, flags et ALU
+    public final CpuState state = new CpuState(); // État interne (registres, CC)
+    public final Breakpoints breakpoints = new Breakpoints(); // Points d'arrêt et d'observation
+    java.util.Stack<Integer> callStack = new java.util.Stack<>(); // Pile pour les appels
 
     // Variables pour le programme en cours
-    String[] codeLines;            // Tableau des lignes de code
     boolean isSaved = false;       // Indique si le programme est enregistré
-    int currentLineIndex = 0;      // Index de la ligne actuelle
-    int currentAddress = 0;        // Adresse actuelle dans la ROM
-    LinkedHashMap<String, Integer> labelsMap = new LinkedHashMap<>(); // Labels et leurs positions
+    Program program;               // Programme décodé lors de l'enregistrement
+    int lastAddress = CpuState.RESET_PC;  // Adresse de la dernière instruction exécutée
+    private Jit jit = new Jit(this);      // Compilation des blocs chauds (null : interpréteur seul)
+    // Enregistrements facultatifs, lus par le thread d'exécution au début de chaque lot
+    // (sans aucun d'eux, l'exécution passe par le JIT et les superinstructions)
+    private volatile Journal journal;     // Journal pour le retour arrière (null : pas d'enregistrement)
+    private volatile TraceWriter trace;   // Trace binaire de l'exécution (null : pas de trace)
+    private volatile Profiler profiler;   // Profil de l'exécution (null : pas de profil)
+    private volatile AccessCounters accesses; // Compteurs d'accès pour la carte de chaleur (null : aucun)
+    private JDialog heatmapWindow;        // Fenêtre de la carte de chaleur (créée au premier affichage)
+    int operandAddress = -1;              // Adresse effective du dernier opérande lu ou écrit en mémoire
+    private long[] lineCycles = new long[0]; // Cycles par ligne du source (marge de l'éditeur)
+    private long heatMax;                 // Cycles de la ligne la plus chaude
+    private final ExecutionEngine engine; // Exécution sur un thread dédié
+    private GUI gui;                      // Fenêtre principale (boutons d'exécution)
+
+    // Couleurs des points d'arrêt (marge de l'éditeur, ROM) et des points d'observation (RAM)
+    private static final Color BREAKPOINT_COLOR = new Color(204, 0, 51);
+    private static final Color CONDITION_COLOR = new Color(255, 153, 51);
+    private static final Color WATCHPOINT_COLOR = new Color(153, 51, 255);
 
     // Constructeur du CPU
-    public CPU(RAM ram, ROM rom,
+    public CPU(Memory memory, RAM ram, ROM rom,
                Registers A, Registers B,
                Registers X, Registers Y,
                Registers U, Registers S,
                Registers PC, Registers DP, ControlPanel RI,
                Registers N, Registers Z,
                Registers V, Registers C, Registers H,
-               ALU alu, BitDisplay binA, BitDisplay binB) {
+               ALU alu, BitDisplay binA, BitDisplay binB, ControlPanel cycles) {
 
         // Initialisation des composants
+        this.memory = memory;
         this.ram = ram;
         this.rom = rom;
+        this.view = new CpuView(A, B, X, Y, U, S, PC, DP, RI, N, Z, V, C, H, alu, binA, binB, cycles);
 
-        this.A = A; this.B = B;
-        this.X = X; this.Y = Y;
-        this.U = U; this.S = S;
-        this.PC = PC; this.DP = DP;
-        this.RI = RI;
+        // Les notifications du thread d'exécution arrivent sur l'EDT
+        this.engine = new ExecutionEngine(this, new ExecutionEngine.Listener() {
+            @Override
+            public void stateChanged(ExecutionEngine.Frame frame) {
+                refreshView(frame);
+            }
 
-        this.N = N; this.Z = Z; this.V = V; this.C = C; this.H = H;
+            @Override
+            public void breakpointHit(ExecutionEngine.Frame frame) {
+                refreshView(frame);
+                setRunButton(false);
+                int line = program == null ? -1 : program.lineOf(frame.state.pc);
+                JOptionPane.showMessageDialog(null, frame.breakpoint + (line >= 0 ? "\nLigne " + (line + 1) : ""),
+                        "Point d'arrêt", JOptionPane.INFORMATION_MESSAGE);
+            }
 
-        this.alu = alu;
-        this.binA = binA;
-        this.binB = binB;
+            @Override
+            public void executionFinished(ExecutionEngine.Frame frame) {
+                refreshView(frame);
+                setRunButton(false);
+                if (frame.error != null) {
+                    JOptionPane.showMessageDialog(null, frame.error, "Erreur d'exécution", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(null, "Execution step by step done !");
+                }
+            }
+        });
     }
 
-    // Initialiser les lignes de code depuis l'éditeur
-    public void initializeLines(GUI gui) {
-        // Supprimer les commentaires et convertir en majuscules
-        codeLines = gui.codeEditor.getText().replaceAll(";.*?\\n", "\n").toUpperCase().split("\\n+");
+    // Constructeur sans interface graphique (exécution en ligne de commande, benchmarks)
+    public CPU(Memory memory) {
+        this.memory = memory;
+        this.engine = null;
+    }
 
-        // Identifier les labels et les stocker
-        for (int i = 0; i < codeLines.length; i++) {
-            if (codeLines[i].contains(":")) {
-                labelsMap.put(codeLines[i].split(":")[0], i);
-            }
+    // Charge un programme déjà assemblé et remet le CPU à l'état initial (sans interface graphique)
+    public void load(Program program) {
+        this.program = program;
+        program.load(memory);
+        callStack.clear();
+        clearJournal();
+        state.reset();
+        lastAddress = CpuState.RESET_PC;
+    }
+
+    // Instantané de la machine complète (registres, cycles, pile d'appels, mémoire)
+    public Snapshot snapshot() {
+        int[] stack = new int[callStack.size()];
+        for (int i = 0; i < stack.length; i++) stack[i] = callStack.get(i);
+        return new Snapshot(state, lastAddress, stack, memory.snapshotPages(), memory.getRomEnd());
+    }
+
+    // Remet la machine dans l'état d'un instantané (l'exécution en cours est d'abord arrêtée)
+    public void restore(Snapshot snapshot) {
+        if (engine != null) engine.stop();
+        memory.restorePages(snapshot.pages(), snapshot.romEnd);
+        snapshot.restoreState(state);
+        callStack.clear();
+        clearJournal();
+        for (int address : snapshot.getCallStack()) callStack.push(address);
+        lastAddress = snapshot.lastAddress;
+    }
+
+    // Active ou désactive la compilation des blocs chauds (comparaison avec l'interpréteur)
+    public void setJitEnabled(boolean enabled) {
+        jit = enabled ? new Jit(this) : null;
+    }
+
+    public boolean isJitEnabled() {
+        return jit != null;
+    }
+
+    // Compilateur de blocs (null si désactivé), pour les statistiques
+    public Jit getJit() {
+        return jit;
+    }
+
+    // Active le journal d'exécution (null pour le désactiver) : chaque instruction devient annulable,
+    // l'exécution passe alors par l'interpréteur (les blocs compilés ne s'arrêtent pas à chaque instruction)
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+        memory.journal = journal;
+        if (journal != null) journal.clear();
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    // Active la trace binaire de l'exécution (null pour la désactiver), même restriction que le journal
+    public void setTrace(TraceWriter trace) {
+        this.trace = trace;
+    }
+
+    public TraceWriter getTrace() {
+        return trace;
+    }
+
+    // Active le profil de l'exécution (null pour le désactiver), même restriction que le journal
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    // Active le comptage des accès mémoire (null pour le désactiver), même restriction que le journal
+    public void setAccessCounters(AccessCounters accesses) {
+        this.accesses = accesses;
+    }
+
+    public AccessCounters getAccessCounters() {
+        return accesses;
+    }
+
+    // Programme chargé ou enregistré depuis l'interface (null si aucun)
+    public Program getProgram() {
+        return program;
+    }
+
+    // Exécute jusqu'à l'arrêt du programme, un point d'arrêt ou maxInstructions, retourne le nombre d'instructions exécutées
+    public long run(long maxInstructions) {
+        if (journal != null || trace != null || profiler != null || accesses != null || !breakpoints.isEmpty()) {
+            return runRecorded(maxInstructions);
+        }
+        if (jit != null) return jit.run(maxInstructions);
+        long count = 0;
+        while (!state.halted && count < maxInstructions) {
+            step();
+            count++;
         }
+        return count;
+    }
 
-        // Supprimer les lignes contenant uniquement les labels
-        for (int i = 0; i < codeLines.length; i++) {
-            codeLines[i] = codeLines[i].contains(":") ? "" : codeLines[i];
+    // Exécution instruction par instruction avec journal, trace, profil, compteurs d'accès et / ou points d'arrêt
+    // (copiés une fois par lot : l'interface peut les activer ou les désactiver pendant l'exécution)
+    private long runRecorded(long maxInstructions) {
+        boolean checked = !breakpoints.isEmpty();
+        Journal journal = this.journal;
+        TraceWriter trace = this.trace;
+        Profiler profiler = this.profiler;
+        AccessCounters accesses = this.accesses;
+        long count = 0;
+        while (!state.halted && count < maxInstructions) {
+            int pc = state.pc;
+            long cycles = state.cycles;
+            if (checked && breakpoints.beforeInstruction(this)) break;
+            if (journal != null) journal.record(this);
+            operandAddress = -1;
+            step();
+            if (trace != null) trace.record(this, pc, cycles);
+            if (profiler != null) profiler.record(pc, state.cycles - cycles);
+            if (accesses != null) accesses.record(this, pc);
+            count++;
+            if (checked && breakpoints.afterInstruction(this, pc)) break;
         }
+        return count;
+    }
+
+    // Annule la dernière instruction exécutée, retourne faux si l'historique est vide
+    public boolean stepBack() {
+        return journal != null && journal.stepBack(this);
     }
 
-    // Exécuter tout le programme
+    // Oublie l'historique (l'état vient d'être remis à zéro ou remplacé)
+    private void clearJournal() {
+        if (journal != null) journal.clear();
+    }
+
+    // Exécuter tout le programme sur le thread d'exécution
     public void executeAll(GUI gui) {
-        while (currentLineIndex < codeLines.length) {
-            executeStep(gui);
+        if (!isReady(gui)) return;
+        setRunButton(true);
+        engine.start();
+    }
+
+    // Suspendre l'exécution en cours
+    public void pauseExecution(GUI gui) {
+        engine.pause();
+        setRunButton(false);
+    }
+
+    // Vitesse choisie dans l'interface (prise en compte immédiatement, même pendant l'exécution)
+    public void setSpeed(GUI gui) {
+        engine.setSpeed((ExecutionEngine.Speed) gui.speedSelector.getSelectedItem());
+    }
+
+    // Arrêter l'exécution et revenir au début du programme
+    public void stopExecution(GUI gui) {
+        engine.stop();
+        setRunButton(false);
+        ram.refreshRange(memory.getDirtyLow(), memory.getDirtyHigh()); // Écritures du dernier lot non affiché
+        memory.clearDirty();
+        if (!isSaved) return;
+        callStack.clear();
+        clearJournal();
+        state.reset();
+        lastAddress = CpuState.RESET_PC;
+        rom.setCurrent(lastAddress);
+        view.refresh(state);
+    }
+
+    // Exécute l'instruction dont l'opcode se trouve en mémoire à l'adresse PC
+    public void step() {
+        ByteInterpreter.step(this);
+    }
+
+    // Exécution de référence à partir du programme décodé (comparaison avec l'interpréteur d'octets)
+    public long runDecoded(long maxInstructions) {
+        long count = 0;
+        while (!state.halted && count < maxInstructions) {
+            stepDecoded();
+            count++;
         }
+        return count;
+    }
+
+    // Exécute une instruction depuis le programme décodé
+    public void stepDecoded() {
+        DecodedOp op = program.at(state.pc);
+        if (op == null) {
+            throw new IllegalStateException("Aucune instruction à l'adresse " + CpuView.hex16(state.pc));
+        }
+        lastAddress = op.address;
+        state.ri = op.bytes[0];
+        state.pc = (op.address + op.length) & 0xFFFF; // PC pointe déjà sur l'instruction suivante
+        state.cycles += op.cycles;
+        executeInstruction(op);
     }
 
     // Exécuter une seule instruction (step by step)
     public void executeStep(GUI gui) {
+        if (engine.isRunning() || !isReady(gui)) return;
+        engine.step();
+    }
+
+    // Annuler la dernière instruction exécutée (pas arrière)
+    public void executeStepBack(GUI gui) {
+        if (engine.isRunning() || !isSaved || !startJournal()) return;
+        if (!engine.stepBack()) {
+            JOptionPane.showMessageDialog(null, "Début de l'historique atteint.", "Retour arrière", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // Revenir en arrière jusqu'au point d'arrêt précédent, ou jusqu'au début de l'historique enregistré
+    public void reverseExecution(GUI gui) {
+        if (engine.isRunning() || !isSaved || !startJournal()) return;
+        if (engine.reverseContinue(breakpoints.isEmpty() ? null : pc -> breakpoints.matches(this)) == 0) {
+            JOptionPane.showMessageDialog(null, "Début de l'historique atteint.", "Retour arrière", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    // Le journal n'est créé qu'à la première demande de retour arrière : jusque-là, rien n'est
+    // enregistré et l'exécution reste compilée. Retourne faux s'il vient d'être créé (historique vide).
+    private boolean startJournal() {
+        if (journal != null) return true;
+        setJournal(new Journal());
+        JOptionPane.showMessageDialog(null, "Retour arrière activé : les instructions exécutées à partir de maintenant pourront être annulées.",
+                "Retour arrière", JOptionPane.INFORMATION_MESSAGE);
+        return false;
+    }
+
+    // Points d'arrêt dans l'interface : clic dans la marge de l'éditeur ou sur une cellule ROM,
+    // points d'observation : clic sur une cellule RAM (Maj + clic ou clic droit : condition, type d'accès)
+    public void installBreakpoints(GUI gui) {
+        this.gui = gui;
+        gui.gutter.setMarker(line -> marker(addressOfLine(line)));
+        gui.gutter.setHeat(this::heat);
+        gui.gutter.setLineListener((line, event) -> {
+            int address = addressOfLine(line);
+            if (address < 0) {
+                JOptionPane.showMessageDialog(null, isSaved ? "Aucune instruction sur cette ligne."
+                        : "Enregistrez le programme avant de poser un point d'arrêt.",
+                        "Point d'arrêt", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            editBreakpoint(address, event);
+        });
+        rom.table.setMarker(this::marker);
+        rom.table.setAddressListener((address, event) -> {
+            if (isSaved && program.at(address) != null) editBreakpoint(address, event);
+        });
+        ram.table.setMarker(address -> breakpoints.getWatchpoint(address) != 0 ? WATCHPOINT_COLOR : null);
+        ram.table.setAddressListener(this::editWatchpoint);
+    }
+
+    // Adresse de l'instruction d'une ligne de l'éditeur (-1 si le programme n'est pas enregistré ou si la ligne est vide)
+    private int addressOfLine(int line) {
+        if (!isSaved || program == null) return -1;
+        int address = program.addressOfLine(line);
+        return program.lineOf(address) == line ? address : -1;
+    }
+
+    // Couleur du marqueur d'un point d'arrêt (null si aucun)
+    private Color marker(int address) {
+        if (address < 0 || !breakpoints.has(address)) return null;
+        return breakpoints.getCondition(address) != null ? CONDITION_COLOR : BREAKPOINT_COLOR;
+    }
+
+    // Clic : pose ou retire le point d'arrêt, Maj + clic ou clic droit : saisie de la condition
+    private void editBreakpoint(int address, MouseEvent event) {
+        if (event.isShiftDown() || SwingUtilities.isRightMouseButton(event)) {
+            String current = breakpoints.getCondition(address);
+            String condition = JOptionPane.showInputDialog(null,
+                    "Condition d'arrêt en " + CpuView.hex16(address) + " (vide : sans condition)\n"
+                            + "Exemples : A == $50, HITS > 10, [$0100] != 0 && X >= $0200",
+                    current == null ? "" : current);
+            if (condition == null) return; // Annulé
+            try {
+                breakpoints.set(address, condition);
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(null, "Condition invalide\n" + e.getMessage(), "Erreur", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        } else {
+            breakpoints.toggle(address);
+        }
+        gui.gutter.repaint();
+        rom.table.refreshAddress(address);
+    }
+
+    // Clic : observe les lectures et écritures d'une adresse (ou arrête de l'observer),
+    // Maj + clic ou clic droit : choix du type d'accès observé
+    private void editWatchpoint(int address, MouseEvent event) {
+        int kinds;
+        if (event.isShiftDown() || SwingUtilities.isRightMouseButton(event)) {
+            String[] options = { "Lecture", "Écriture", "Lecture et écriture", "Aucun" };
+            int choice = JOptionPane.showOptionDialog(null, "Accès à observer en " + CpuView.hex16(address),
+                    "Point d'observation", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                    null, options, options[2]);
+            if (choice < 0) return; // Annulé
+            kinds = choice == 0 ? Breakpoints.READ : choice == 1 ? Breakpoints.WRITE
+                    : choice == 2 ? Breakpoints.READ | Breakpoints.WRITE : 0;
+        } else {
+            kinds = breakpoints.getWatchpoint(address) != 0 ? 0 : Breakpoints.READ | Breakpoints.WRITE;
+        }
+        breakpoints.watch(address, kinds);
+        ram.table.refreshAddress(address);
+    }
+
+    // Vérifie que le programme peut être exécuté (enregistré, ROM inchangée, non terminé)
+    private boolean isReady(GUI gui) {
         if (!isSaved) { // Vérifier si le programme est enregistré
             saveProgram(gui);
-            return;
+            return false;
         }
 
-        if (currentLineIndex >= codeLines.length) {
-            JOptionPane.showMessageDialog(null, "Exécution terminée !", "Succès", JOptionPane.INFORMATION_MESSAGE);
-            return;
+        if (!program.isValid(memory)) { // La ROM a été réécrite depuis l'enregistrement
+            isSaved = false;
+            JOptionPane.showMessageDialog(null, "La ROM a été modifiée, veuillez enregistrer le programme de nouveau.",
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            return false;
         }
 
-        String line = codeLines[currentLineIndex].trim();
-        if (line.isEmpty()) { // Ignorer les lignes vides
-            currentLineIndex++;
-            return;
+        if (state.halted) {
+            JOptionPane.showMessageDialog(null, "Exécution terminée !", "Succès", JOptionPane.INFORMATION_MESSAGE);
+            return false;
         }
+        return true;
+    }
+
+    // Rafraîchir l'affichage à partir d'une image publiée par le thread d'exécution :
+    // seuls les cellules RAM modifiées et les registres qui ont changé sont redessinés
+    private void refreshView(ExecutionEngine.Frame frame) {
+        rom.setCurrent(frame.lastAddress);
+        ram.refreshRange(frame.dirtyLow, frame.dirtyHigh);
+        view.refresh(frame.state);
+        refreshHeat();
+    }
 
-        // Séparer l'opcode et l'opérande
-        String[] parts = line.split("\\s+");
-        String opcode = parts[0];
-        String operand = parts.length > 1 ? parts[1] : null;
+    // Recalcule les cycles par ligne du profil et redessine la marge de l'éditeur
+    private void refreshHeat() {
+        if (gui == null) return;
+        Profiler profiler = this.profiler;
+        lineCycles = isSaved && program != null && profiler != null ? profiler.cyclesByLine(program) : new long[0];
+        long max = 0;
+        for (long value : lineCycles) max = Math.max(max, value);
+        heatMax = max;
+        gui.gutter.repaint();
+    }
+
+    // Chaleur d'une ligne de l'éditeur : ses cycles rapportés à ceux de la ligne la plus chaude
+    private double heat(int line) {
+        if (line >= lineCycles.length || heatMax == 0) return 0;
+        return (double) lineCycles[line] / heatMax;
+    }
 
-        // Créer une instruction
-        Instruction instr = new Instruction(opcode, operand);
+    // Rapport des points chauds : instructions et labels classés par cycles consommés
+    // (le premier clic active le profil, qui ralentit l'exécution ; il peut ensuite être désactivé)
+    public void showProfile(GUI gui) {
+        if (!isSaved) return;
+        Profiler profiler = this.profiler;
+        if (profiler == null) {
+            setProfiler(new Profiler());
+            JOptionPane.showMessageDialog(null, "Profil activé : les instructions exécutées à partir de maintenant sont mesurées.",
+                    "Profil", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        java.util.List<Profiler.HotSpot> spots = profiler.hotSpots(program);
+        java.util.List<Profiler.HotSpot> labels = profiler.byLabel(program);
+        long total = Math.max(profiler.totalCycles(), 1);
+
+        JPanel panel = new JPanel(new GridLayout(2, 1, 0, 10));
+        panel.add(profileTable("Instructions", spots.subList(0, Math.min(spots.size(), 50)), total));
+        panel.add(profileTable("Labels", labels, total));
+        panel.setPreferredSize(new Dimension(560, 420));
+
+        String[] options = { "Fermer", "Remettre à zéro", "Désactiver" };
+        int choice = JOptionPane.showOptionDialog(null, panel,
+                "Profil : " + profiler.totalExecutions() + " instructions, " + profiler.totalCycles() + " cycles",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice == 1) {
+            profiler.clear();
+            refreshHeat();
+        } else if (choice == 2) {
+            setProfiler(null);
+            refreshHeat();
+        }
+    }
 
-        // Exécuter l'instruction
-        executeInstruction(instr);
+    // Fenêtre de la carte de chaleur de la mémoire (non modale, mise à jour pendant l'exécution) ;
+    // un clic sur la carte affiche l'adresse dans le panneau RAM. Les accès ne sont comptés
+    // que pendant l'affichage de la fenêtre.
+    public void showHeatmap(GUI gui) {
+        if (heatmapWindow == null) {
+            AccessCounters counters = new AccessCounters();
+            MemoryHeatmap heatmap = new MemoryHeatmap(counters);
+            heatmap.setAddressListener((address, event) -> ram.jumpTo(address));
+            JLabel legend = new JLabel("Rouge : écritures, vert : lectures, bleu : exécutions (une ligne par page de 256 octets)",
+                    SwingConstants.CENTER);
+            legend.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+
+            heatmapWindow = new JDialog(gui, "Carte mémoire", false);
+            heatmapWindow.setLayout(new BorderLayout());
+            heatmapWindow.add(heatmap, BorderLayout.CENTER);
+            heatmapWindow.add(legend, BorderLayout.SOUTH);
+            heatmapWindow.setResizable(false);
+            heatmapWindow.pack();
+            heatmapWindow.setLocationRelativeTo(gui);
+            heatmapWindow.addComponentListener(new java.awt.event.ComponentAdapter() {
+                @Override
+                public void componentShown(java.awt.event.ComponentEvent e) {
+                    setAccessCounters(counters);
+                }
 
-        // Calculer la taille de l'instruction pour avancer le PC
-        int opcodeLength = instr.getOpcodeHex().length() / 2; 
-        int operandLength = 0;
-        if (operand != null) {
-            String rawOperand = Instruction.filterOperand(operand);
-            operandLength = rawOperand.length() / 2;
+                @Override
+                public void componentHidden(java.awt.event.ComponentEvent e) {
+                    setAccessCounters(null);
+                }
+            });
         }
-        int step = opcodeLength + operandLength;
+        heatmapWindow.setVisible(true);
+        heatmapWindow.toFront();
+    }
 
-        // Mettre à jour les registres et le panneau de contrôle
-        PC.valueLabel.setText(Instruction.getAddress(currentAddress+step));
-        RI.controlvalueLabel.setText(rom.romMemoryData.getOrDefault(Instruction.getAddress(currentAddress), "00"));
-        rom.setCurrent(Instruction.getAddress(currentAddress));
+    // Tableau d'une liste de points chauds (adresse, ligne, nom, exécutions, cycles, part du total)
+    private static JScrollPane profileTable(String title, java.util.List<Profiler.HotSpot> spots, long total) {
+        String[] columns = { "Adresse", "Ligne", title.equals("Labels") ? "Label" : "Instruction", "Exécutions", "Cycles", "%" };
+        Object[][] rows = new Object[spots.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            Profiler.HotSpot spot = spots.get(i);
+            rows[i] = new Object[] { CpuView.hex16(spot.address), spot.line >= 0 ? spot.line + 1 : "-", spot.name,
+                    spot.executions, spot.cycles, String.format("%.1f", 100.0 * spot.cycles / total) };
+        }
+        JTable table = new JTable(rows, columns) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(BorderFactory.createTitledBorder(title));
+        return scroll;
+    }
 
-        currentLineIndex++;
-        currentAddress += step;
+    // Le bouton Exécuter devient Pause pendant l'exécution continue
+    private void setRunButton(boolean running) {
+        if (gui == null) return;
+        gui.btnRun.setText(running ? "Pause ⏸" : "Exécuter ▶️");
+        gui.btnRun.setActionCommand(running ? "PAUSE" : "RUN");
+        gui.btnStop.setEnabled(running || isSaved);
+        gui.btnBack.setEnabled(!running && isSaved);    // Retour arrière seulement à l'arrêt
+        gui.btnReverse.setEnabled(!running && isSaved);
+        gui.btnProfile.setEnabled(isSaved);
     }
 
     // Enregistrer le programme dans la ROM
     public void saveProgram(GUI gui) {
-        // Vérifier la syntaxe de chaque ligne
-        for (int i = 0; i < codeLines.length; i++) {
-            String line = codeLines[i].trim();
-            if (line.isEmpty()) continue;
-            String[] parts = line.split("\\s+");
-            String opcode = parts[0];
-            String operand = parts.length > 1 ? parts[1] : null;
-            Instruction instr = new Instruction(opcode, operand);
-            if (operand != null && !Instruction.isSyntaxCorrect(instr, labelsMap)) {
-                JOptionPane.showMessageDialog(null,
-                        "Erreur de syntaxe à la ligne " + (i + 1) + "\n" + Instruction.erreurMessag,
-                        "Erreur", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-        }
+        engine.stop(); // Le CPU ne doit pas être modifié pendant le chargement
 
-        // Vérifier que la dernière instruction est END
-        int lastInstrIndex = -1;
-        for (int i = codeLines.length - 1; i >= 0; i--) {
-            if (!codeLines[i].trim().isEmpty()) {
-                lastInstrIndex = i;
-                break;
-            }
-        }
-
-        if (lastInstrIndex == -1 || !codeLines[lastInstrIndex].trim().equalsIgnoreCase("END")) {
-            JOptionPane.showMessageDialog(
-                null,
-                "Erreur : le programme doit se terminer par l'instruction END.",
-                "Erreur d'exécution",
-                JOptionPane.ERROR_MESSAGE
-            );
+        // Programme assemblé pendant la frappe (seules les lignes modifiées depuis sont redécoupées) :
+        // toutes les erreurs sont affichées ensemble
+        Program assembled = gui.assembler.assembleNow();
+        if (!assembled.errors.isEmpty()) {
+            showErrors(assembled);
             return;
         }
+        program = assembled;
 
         // Mettre à jour l'état du programme
         isSaved = true;
@@ -174,106 +569,56 @@ public class CPU {
         gui.btnRun.setEnabled(true);
         gui.btnRun.setForeground(Color.WHITE);
 
-        // Conversion des instructions en hex pour la ROM
-        LinkedHashMap<String, String> romMap = new LinkedHashMap<>();
-        int k = 0;
-
-        for (int i = 0; i < codeLines.length; i++) {
-            if (codeLines[i].equals("")) continue;
-            String line = codeLines[i].trim();
-            String[] parts = line.split("\\s+");
-            String opcode = parts[0];
-            String operand = parts.length > 1 ? parts[1] : null;
-            Instruction ins = new Instruction(opcode, operand);
-            String opcodeHex = ins.getOpcodeHex().toUpperCase();
-            for (int j = 0; j < opcodeHex.length(); j += 2) {
-                romMap.put(Instruction.getAddress(k++), opcodeHex.substring(j, j + 2));
-            }
-
-            // Gestion des instructions TFR / EXG
-            if (ins.detectMode() == Instruction.AddressingMode.registerOnly) {
-                String postByte = ins.getRegisterPostByte();
-                romMap.put(Instruction.getAddress(k++), postByte);
-                continue;
-            }
-
-            // Conversion des opérandes
-            if (operand != null) {
-                String rawOperand = Instruction.filterOperand(ins.operand);
-                if (!rawOperand.matches("\\$?[0-9A-Fa-f]+") && !rawOperand.startsWith("#")) continue;
-
-                rawOperand = Instruction.filterOperand(rawOperand);
-                for (int p = 0; p < rawOperand.length(); p += 2) {
-                    String byteStr = (p + 2 <= rawOperand.length()) ? rawOperand.substring(p, p + 2) : rawOperand.substring(p);
-                    romMap.put(Instruction.getAddress(k++), byteStr);
-                }
-
-                if (rawOperand.contains(",")) { 
-                    romMap.put(Instruction.getAddress(k++), getIndexPostByte(rawOperand));
-                    String[] part = rawOperand.split(",");
-                    if (!part[0].isEmpty()) {
-                        int val = part[0].startsWith("$") ? Integer.parseInt(part[0].substring(1), 16)
-                                : Integer.parseInt(part[0]);
-                        romMap.put(Instruction.getAddress(k++), String.format("%02X", val & 0xFF));
-                    }
-                } else if (rawOperand.startsWith("#")) { 
-                    String imm = rawOperand.replace("#", "").replace("$", "");
-                    if (imm.length() > 2) {
-                        romMap.put(Instruction.getAddress(k++), imm.substring(0, 2));
-                        romMap.put(Instruction.getAddress(k++), imm.substring(2, 4));
-                    } else {
-                        romMap.put(Instruction.getAddress(k++), imm);
-                    }
-                } else if (rawOperand.startsWith("$")) { 
-                    String addr = rawOperand.replace("$", "");
-                    if (addr.length() > 2) {
-                        romMap.put(Instruction.getAddress(k++), addr.substring(0, 2));
-                        romMap.put(Instruction.getAddress(k++), addr.substring(2, 4));
-                    } else {
-                        romMap.put(Instruction.getAddress(k++), addr);
-                    }
-                }
-            }
-        }
+        // Chargement du code machine dans la ROM
+        program.load(memory);
+        rom.refresh();
+        ram.refresh(); // Données placées en RAM par ORG
+        if (profiler != null) profiler.clear();
+        refreshHeat(); // Les lignes des points d'arrêt et du profil dépendent du programme
+        callStack.clear();
+        clearJournal();
+        state.pc = CpuState.RESET_PC;
+        state.halted = false;
+        state.cycles = 0;
+        lastAddress = CpuState.RESET_PC;
+        setRunButton(false);
+        view.refresh(state);
+    }
 
-        rom.updateROM(romMap);
-        PC.valueLabel.setText(Instruction.getAddress(currentLineIndex));
+    // Erreurs d'assemblage, une par ligne, dans une seule fenêtre
+    private void showErrors(Program assembled) {
+        JTextArea text = new JTextArea(assembled.errorReport());
+        text.setEditable(false);
+        text.setRows(Math.min(assembled.errors.size(), 15));
+        text.setColumns(60);
+        String title = assembled.errors.size() == 1 ? "1 erreur d'assemblage" : assembled.errors.size() + " erreurs d'assemblage";
+        JOptionPane.showMessageDialog(null, new JScrollPane(text), title, JOptionPane.ERROR_MESSAGE);
     }
 
     // Fonction pour effacer le programme en cours et réinitialiser le CPU
     public void clearProgram(GUI gui) {
+            engine.stop();
             isSaved = false;
-            currentLineIndex = currentAddress = 0;
+            setRunButton(false);
+            program = null;
+            callStack.clear();
+            clearJournal();
+            breakpoints.clear();
+            if (profiler != null) profiler.clear();
+            refreshHeat();
             gui.btnSave.setText("Enregistrer ✔");
             gui.btnSave.setActionCommand("SAVE");
             gui.btnStep.setEnabled(false);
             gui.btnRun.setEnabled(false);
 
-            // Vider la ROM
-            LinkedHashMap<String, String> emptyROM = new LinkedHashMap<>();
-            for (int i = 0; i <= 30; i++) {
-                emptyROM.put(String.format("FE%02X", i), "");
-            }
-            rom.updateROM(emptyROM);
-
-            // Vider la RAM
-            LinkedHashMap<String, String> emptyRAM = new LinkedHashMap<>();
-            for (int i = 0; i <= 30; i++) {
-                emptyRAM.put(String.format("%04X", i), "00");
-            }
-            ram.updateRAM(emptyRAM);
-            alu.updateALU("00", "00", "00");
+            // Vider la ROM et la RAM
+            memory.clear();
+            rom.refresh();
+            ram.refresh();
 
             // Réinitialiser les registres et les flags
-            A.valueLabel.setText("00"); B.valueLabel.setText("00");
-            U.valueLabel.setText("0000"); S.valueLabel.setText("0000");
-            X.valueLabel.setText("0000"); Y.valueLabel.setText("0000");
-            DP.valueLabel.setText("00"); RI.controlvalueLabel.setText("00");
-            PC.valueLabel.setText("FE00");
-            C.valueLabel.setText("0"); N.valueLabel.setText("0");
-            Z.valueLabel.setText("1"); H.valueLabel.setText("0");
-            V.valueLabel.setText("0"); binA.valueLabel.setText("00000000");
-            binB.valueLabel.setText("00000000");
+            state.reset();
+            view.refresh(state);
         }
 
     public static void saveTextToFile(String textContent) {
@@ -356,624 +701,372 @@ public class CPU {
         if (content != null) gui.codeEditor.setText(content); // Si le fichier est lu correctement
     }
 
-    private String getRegValue(String reg) {
-        // Retourne la valeur actuelle d'un registre donné
-        if (reg == null) return "";
-        switch (reg) {
-            case "A": return A.valueLabel.getText();
-            case "B": return B.valueLabel.getText();
-            case "X": return X.valueLabel.getText();
-            case "Y": return Y.valueLabel.getText();
-            case "U": return U.valueLabel.getText();
-            case "S": return S.valueLabel.getText();
-            case "DP": return DP.valueLabel.getText();
-            default: return "";
+    // Calcule l'adresse effective de l'opérande selon le mode d'adressage
+    private int effectiveAddress(DecodedOp op) {
+        switch (op.mode) {
+            case direct: return (state.dp << 8) | op.value;
+            case etendu: return op.value;
+            case indexe: return indexedAddress(op);
+            default: throw new IllegalArgumentException("Mode sans adresse : " + op.opcode + " / " + op.mode);
         }
     }
 
-    private void setRegValue(String reg, String val) {
-        // Met à jour la valeur d'un registre et sa représentation binaire si nécessaire
-        int intVal = Integer.parseInt(val, 16); // Convertit la valeur hexadécimale en entier
-        String binVal = String.format("%8s", Integer.toBinaryString(intVal & 0xFF)).replace(' ', '0'); // Conversion en binaire sur 8 bits
-
-        switch (reg) {
-            case "A":
-                A.valueLabel.setText(String.format("%02X", intVal & 0xFF));
-                binA.valueLabel.setText(binVal); // Mise à jour affichage binaire
-                break;
-            case "B":
-                B.valueLabel.setText(String.format("%02X", intVal & 0xFF));
-                binB.valueLabel.setText(binVal);
-                break;
-            case "U": U.valueLabel.setText(String.format("%04X", intVal & 0xFFFF)); break;
-            case "S": S.valueLabel.setText(String.format("%04X", intVal & 0xFFFF)); break;
-            case "X": X.valueLabel.setText(String.format("%04X", intVal & 0xFFFF)); break;
-            case "Y": Y.valueLabel.setText(String.format("%04X", intVal & 0xFFFF)); break;
-            case "DP": DP.valueLabel.setText(String.format("%02X", intVal & 0xFF)); break;
-            default: throw new IllegalArgumentException("Registre inconnu: " + reg); // Gestion erreur registre
+    // Adresse effective du mode indexé d'après le post-byte (mêmes formes que ByteInterpreter.indexed)
+    private int indexedAddress(DecodedOp op) {
+        int postByte = op.postByte;
+        if ((postByte & 0x80) == 0) return (state.get(op.reg) + op.value) & 0xFFFF; // n,R sur 5 bits
+        int reg = op.reg, address;
+        switch (postByte & 0x0F) {
+            case 0x0: address = state.get(reg); state.set(reg, address + 1); break;   // ,R+
+            case 0x1: address = state.get(reg); state.set(reg, address + 2); break;   // ,R++
+            case 0x2: address = state.get(reg) - 1; state.set(reg, address); break;   // ,-R
+            case 0x3: address = state.get(reg) - 2; state.set(reg, address); break;   // ,--R
+            case 0x5: address = state.get(reg) + (byte) state.b; break;               // B,R
+            case 0x6: address = state.get(reg) + (byte) state.a; break;               // A,R
+            case 0xB: address = state.get(reg) + (short) state.getD(); break;         // D,R
+            case 0xC: case 0xD: address = state.pc + op.value; break;                 // n,PCR (PC sur l'instruction suivante)
+            case 0xF: address = op.value; break;                                       // [n]
+            default: address = state.get(reg) + op.value;                              // ,R et n,R sur 8 ou 16 bits
         }
+        address &= 0xFFFF;
+        if ((postByte & 0x10) != 0) address = memory.read16(address); // Mode indirect [ ]
+        return address;
     }
 
-    public String offsetshifter(String operand) {
-        // Calcule l'adresse effective pour les modes indexés
-        operand = operand.trim();
-        String[] split = operand.split(",");
-        if (split.length != 2) throw new IllegalArgumentException("L'operand doit étre sous forme valeur,register ou ,register");
-
-        int offset = 0;
-        String offsetPart = split[0].trim();
-        if (offsetPart.isEmpty()) offset = 0;
-        else if (offsetPart.startsWith("$")) offset = Integer.parseInt(offsetPart.substring(1), 16);
-        else offset = Integer.parseInt(offsetPart);
-
-        String reg = split[1].trim().toUpperCase();
-        int regInt = Integer.parseInt(getRegValue(reg), 16);
-        int result = (regInt + offset) & 0xFFFF; // Masque pour garder 16 bits
-
-        return String.format("%04X", result); // Retourne l'adresse finale
-    }
-
-    private String getIndexPostByte(String operand) {
-        // Retourne le code post-byte pour les modes indexés
-        operand = operand.toUpperCase().replace(" ", "");
-        if (operand.equals(",X")) return "84";
-        if (operand.equals(",Y")) return "A4";
-        if (operand.equals(",U")) return "C4";
-        if (operand.equals(",S")) return "E4";
-
-        throw new IllegalArgumentException("Mode indexé non supporté : " + operand);
-    }
-
-    public void executeInstruction(Instruction instr) {
-        // Exécute l'instruction passée en paramètre
-        String opcode = instr.opcode.toUpperCase();
-        switch (opcode) {
-            case "LDA": case "LDB": case "LDX": case "LDY": case "LDU": case "LDS": executeLD(instr); break; // Load
-            case "STA": case "STB": case "STX": case "STY": case "STU": case "STS": executeST(instr); break; // Store
-            case "ADDA": case "ADDB": executeADD(instr); break; // Addition
-            case "SUBA": case "SUBB": executeSUB(instr); break; // Soustraction
-            case "INCA": case "INCB": executeINC(instr); break; // Incrément
-            case "DECA": case "DECB": executeDEC(instr); break; // Décrément
-            case "LSLA": case "LSLB": executeLSL(instr); break; // Décalage logique à gauche
-            case "LSRA": case "LSRB": executeLSR(instr); break; // Décalage logique à droite
-            case "ROLA": case "ROLB": executeROL(instr); break; // Rotation à gauche
-            case "RORA": case "RORB": executeROR(instr); break; // Rotation à droite
-            case "NOP": executeNOP(instr); break; // No operation
-            case "CLRA": case "CLRB": executeCLR(instr); break; // Clear
-            case "COMA": case "COMB": executeCOM(instr); break; // Complement
-            case "NEGA": case "NEGB": executeNEG(instr); break; // Negation
-            case "CMPA": case "CMPB": executeCMP(instr); break; // Compare
-            case "EXG": executeEXG(instr); break; // Exchange
-            case "TFR": executeTFR(instr); break; // Transfer
-            case "SWI": executeSWI(instr); break; // Software interrupt
-            case "END": executeEND(instr); break; // End of program
-            case "ANDA": case "ANDB": executeAND(instr); break; // AND logique
-            case "ORA":  case "ORB":  executeOR(instr);  break; // OR logique
-            case "EORA": case "EORB": executeEOR(instr); break; // XOR logique
-            case "JMP": executeJMP(instr); break; // Jump
-            case "BEQ": executeBEQ(instr); break; // Branch if equal
-            case "BNE": executeBNE(instr); break; // Branch if not equal
-            case "BMI": executeBMI(instr); break; // Branch if minus
-            case "BPL": executeBPL(instr); break; // Branch if plus
-            case "BCC": executeBCC(instr); break; // Branch if carry clear
-            case "BCS": executeBCS(instr); break; // Branch if carry set
-            case "BVC": executeBVC(instr); break; // Branch if overflow clear
-            case "BVS": executeBVS(instr); break; // Branch if overflow set
-            case "BRA": executeBRA(instr); break; // Branch always
-            default: throw new IllegalArgumentException("Instruction non supportée : " + opcode); // Erreur si instruction inconnue
-        }
+    // Retourne la valeur 8 bits de l'opérande (immédiat ou mémoire)
+    private int operandValue8(DecodedOp op) {
+        if (op.mode == Instruction.AddressingMode.immediat) return op.value;
+        return memory.read8(effectiveAddress(op));
     }
 
-    private void jumpToLabel(String label) {
-        // Vérifie que le label existe
-        if (!labelsMap.containsKey(label)) 
-            throw new IllegalArgumentException("Label non trouvé: " + label);
-
-        // Met à jour l'index de la ligne courante
-        currentLineIndex = labelsMap.get(label);
-        currentAddress = 0;
-
-        // Calcul de l'adresse actuelle en fonction des instructions précédentes
-        for (int i = 0; i < currentLineIndex; i++) {
-            String line = codeLines[i].trim();
-            if (line.isEmpty()) continue; // Ignore les lignes vides
+    public void executeInstruction(DecodedOp op) {
+        // Exécute l'instruction décodée passée en paramètre
+        switch (op.opcode) {
+            case LDA: case LDB: case LDX: case LDY: case LDU: case LDS: executeLD(op); break; // Load
+            case STA: case STB: case STX: case STY: case STU: case STS: executeST(op); break; // Store
+            case ADDA: case ADDB: executeADD(op); break; // Addition
+            case SUBA: case SUBB: executeSUB(op); break; // Soustraction
+            case INCA: case INCB: executeINC(op); break; // Incrément
+            case DECA: case DECB: executeDEC(op); break; // Décrément
+            case LSLA: case LSLB: executeLSL(op); break; // Décalage logique à gauche
+            case LSRA: case LSRB: executeLSR(op); break; // Décalage logique à droite
+            case ROLA: case ROLB: executeROL(op); break; // Rotation à gauche
+            case RORA: case RORB: executeROR(op); break; // Rotation à droite
+            case NOP: executeNOP(op); break; // No operation
+            case CLRA: case CLRB: executeCLR(op); break; // Clear
+            case COMA: case COMB: executeCOM(op); break; // Complement
+            case NEGA: case NEGB: executeNEG(op); break; // Negation
+            case CMPA: case CMPB: executeCMP(op); break; // Compare
+            case EXG: executeEXG(op); break; // Exchange
+            case TFR: executeTFR(op); break; // Transfer
+            case SWI: executeSWI(op); break; // Software interrupt
+            case END: executeEND(op); break; // End of program
+            case RTS: executeRTS(op); break; // Return from subroutine
+            case ANDA: case ANDB: executeAND(op); break; // AND logique
+            case ORA:  case ORB:  executeOR(op);  break; // OR logique
+            case EORA: case EORB: executeEOR(op); break; // XOR logique
+            case JMP: executeJMP(op); break; // Jump
+            case BEQ: case LBEQ: executeBEQ(op); break; // Branch if equal
+            case BNE: case LBNE: executeBNE(op); break; // Branch if not equal
+            case BMI: case LBMI: executeBMI(op); break; // Branch if minus
+            case BPL: case LBPL: executeBPL(op); break; // Branch if plus
+            case BCC: case LBCC: executeBCC(op); break; // Branch if carry clear
+            case BCS: case LBCS: executeBCS(op); break; // Branch if carry set
+            case BVC: case LBVC: executeBVC(op); break; // Branch if overflow clear
+            case BVS: case LBVS: executeBVS(op); break; // Branch if overflow set
+            case BRA: case LBRA: executeBRA(op); break; // Branch always
+            default: throw new IllegalArgumentException("Instruction non supportée : " + op.opcode); // Erreur si instruction inconnue
+        }
+    }
 
-            String[] parts = line.split("\\s+"); // Sépare opcode et operand
-            Instruction instrTmp = new Instruction(parts[0], parts.length > 1 ? parts[1] : null);
+    // Saut vers la cible pré-calculée lors de l'assemblage (O(1))
+    private void branch(DecodedOp op) {
+        if (op.bytes[0] == 0x10) state.cycles++; // LBcc pris : un cycle de plus (LBRA n'a pas de préfixe)
+        state.pc = op.target;
+        if (op.target == program.endAddress) state.halted = true; // Label placé après la dernière instruction
+    }
 
-            currentAddress += instrTmp.getOpcodeHex().length() / 2; // Taille de l'opcode
-            if (parts.length > 1) 
-                currentAddress += Instruction.filterOperand(parts[1]).length() / 2; // Taille de l'opérande
+    public void executeLD(DecodedOp op) {
+        int reg = op.opcode.reg;
+        if (op.mode == Instruction.AddressingMode.immediat) {
+            ld(reg, op.value); // Valeur immédiate
+        } else {
+            int address = effectiveAddress(op); // Lecture mémoire directe, étendue ou indexée
+            ld(reg, CpuState.isWide(reg) ? memory.read16(address) : memory.read8(address));
         }
+    }
 
-        // Met à jour les labels RI et PC
-        RI.controlvalueLabel.setText(rom.romMemoryData.get(Instruction.getAddress(currentAddress)));
-        PC.valueLabel.setText(Instruction.getAddress(currentAddress));
-        rom.setCurrent(Instruction.getAddress(currentAddress));
+    public void executeST(DecodedOp op) {
+        st(op.opcode.reg, effectiveAddress(op));
     }
 
-    public void executeLD(Instruction instr) {
-        // Extraire le registre à partir de l'opcode (ex: LDA -> A)
-        String reg = instr.opcode.substring(2);
-        String mode = instr.detectMode().name(); // Détecte le mode d'adressage
-        String value = "00"; // Valeur par défaut
+    public void executeADD(DecodedOp op) {
+        add(op.opcode.reg, operandValue8(op));
+    }
 
-        switch (mode) {
-            case "immediat":
-                value = instr.operand.replace("#", "").replace("$", ""); // Valeur immédiate
-                break;
+    public void executeSUB(DecodedOp op) {
+        sub(op.opcode.reg, operandValue8(op));
+    }
 
-            case "direct":
-                String addrDirect = instr.operand.replace("$", "");
-                if (addrDirect.length() < 4) {
-                    addrDirect = String.format("%04X", Integer.parseInt(addrDirect, 16));
-                }
-                value = ram.RamMemoryData.getOrDefault(addrDirect, "00"); // Lecture mémoire directe
-                break;
+    public void executeCMP(DecodedOp op) {
+        cmp(op.opcode.reg, operandValue8(op));
+    }
 
-            case "etendu":
-                String addrEtendu = instr.operand.replace("$", "");
-                if (addrEtendu.length() < 4) {
-                    addrEtendu = String.format("%04X", Integer.parseInt(addrEtendu, 16));
-                }
-                value = ram.RamMemoryData.getOrDefault(addrEtendu, "00"); // Lecture mémoire étendue
-                break;
+    public void executeINC(DecodedOp op) {
+        inc(op.opcode.reg);
+    }
 
-            case "indexe":
-                String addrIndexe = offsetshifter(instr.operand);
-                value = ram.RamMemoryData.getOrDefault(addrIndexe, "00"); // Lecture mémoire indexée
-                break;
-        }
+    public void executeDEC(DecodedOp op) {
+        dec(op.opcode.reg);
+    }
 
-        setRegValue(reg, value); // Met à jour le registre
+    public void executeLSL(DecodedOp op) {
+        lsl(op.opcode.reg);
+    }
 
-        // Met à jour les flags Z et N
-        Z.valueLabel.setText(value.equals("00") ? "1" : "0");
-        N.valueLabel.setText((Integer.parseInt(value,16) & 0x80) != 0 ? "1" : "0");
+    public void executeLSR(DecodedOp op) {
+        lsr(op.opcode.reg);
     }
 
-    public void executeST(Instruction instr) {
-        String reg = instr.opcode.substring(2);
-        String operand = instr.operand;
-        String mode = instr.detectMode().name();
-        String value = getRegValue(reg);
+    public void executeROL(DecodedOp op) {
+        rol(op.opcode.reg);
+    }
 
-        String highByte = value.length() > 2 ? value.substring(0, value.length() - 2) : "00"; 
-        String lowByte  = value.length() > 2 ? value.substring(value.length() - 2) : value;
+    public void executeROR(DecodedOp op) {
+        ror(op.opcode.reg);
+    }
 
-        switch (mode) {
-            case "direct":
-                String directAddr = DP.valueLabel.getText() + operand.substring(1);
-                if (value.length() > 2) {
-                    ram.RamMemoryData.put(directAddr, highByte);
-                    int nextAddr = Integer.parseInt(directAddr, 16) + 1;
-                    ram.RamMemoryData.put(String.format("%04X", nextAddr), lowByte);
-                } else {
-                    ram.RamMemoryData.put(directAddr, lowByte);
-                }
-                break;
-
-            case "etendu":
-                String extAddr = operand.substring(1);
-                if (value.length() > 2) {
-                    ram.RamMemoryData.put(extAddr, highByte);
-                    int nextAddr = Integer.parseInt(extAddr, 16) + 1;
-                    ram.RamMemoryData.put(String.format("%04X", nextAddr), lowByte);
-                } else {
-                    ram.RamMemoryData.put(extAddr, lowByte);
-                }
-                break;
-
-            case "indexe":
-                String indexAddr = offsetshifter(operand.replace("$", ""));
-                if (value.length() > 2) {
-                    ram.RamMemoryData.put(indexAddr, highByte);
-                    int nextAddr = Integer.parseInt(indexAddr, 16) + 1;
-                    ram.RamMemoryData.put(String.format("%04X", nextAddr), lowByte);
-                } else {
-                    ram.RamMemoryData.put(indexAddr, lowByte);
-                }
-                break;
-        }
+    public void executeNOP(DecodedOp op) {
+        // Instruction NOP : ne fait rien
+    }
 
-        ram.updateRAM(ram.RamMemoryData); // Actualise la RAM
-    }
-
-    public void executeADD(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        String operand = instr.operand;
-        String mode = instr.detectMode().name();
-        int operandValue = 0;
-
-        switch (mode) {
-            case "immediat":
-                operandValue = Integer.parseInt(operand.replace("#","").replace("$",""),16);
-                break;
-            case "direct":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(DP.valueLabel.getText() + operand.replace("$",""), "00"), 16);
-                break;
-            case "etendu":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(operand.replace("$",""), "00"), 16);
-                break;
-        }
+    public void executeCLR(DecodedOp op) {
+        clr(op.opcode.reg);
+    }
 
-        int regValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = regValue + operandValue;
+    public void executeSWI(DecodedOp op) {
+        state.halted = true;
+    }
 
-        alu.updateALU(String.format("%02X", operandValue), String.format("%02X", regValue), String.format("%02X", result & 0xFF));
+    public void executeEND(DecodedOp op) {
+        state.halted = true;
+    }
 
-        // Mise à jour des flags
-        C.valueLabel.setText(result > 0xFF ? "1" : "0");
-        Z.valueLabel.setText((result & 0xFF) == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText(((regValue ^ result) & (operandValue ^ result) & 0x80) != 0 ? "1" : "0");
+    public void executeCOM(DecodedOp op) {
+        com(op.opcode.reg);
+    }
 
-        setRegValue(reg, String.format("%02X", result & 0xFF));
+    public void executeNEG(DecodedOp op) {
+        neg(op.opcode.reg);
     }
 
-    public void executeSUB(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        String operand = instr.operand;
-        String mode = instr.detectMode().name();
-        int operandValue = 0;
+    public void executeTFR(DecodedOp op) {
+        tfr(op.value);
+    }
 
-        switch (mode) {
-            case "immediat":
-                operandValue = Integer.parseInt(operand.replace("#","").replace("$",""),16);
-                break;
-            case "direct":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(DP.valueLabel.getText() + operand.replace("$",""), "00"), 16);
-                break;
-            case "etendu":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(operand.replace("$",""), "00"), 16);
-                break;
-        }
+    public void executeEXG(DecodedOp op) {
+        exg(op.value);
+    }
 
-        int regValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = regValue - operandValue;
-
-        alu.updateALU(String.format("%02X", operandValue), String.format("%02X", regValue), String.format("%02X", result & 0xFF));
-
-        // Mise à jour des flags
-        C.valueLabel.setText(result < 0 ? "1" : "0"); // Carry / Borrow
-        Z.valueLabel.setText((result & 0xFF) == 0 ? "1" : "0"); // Zero
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0"); // Negative
-        V.valueLabel.setText(((regValue ^ operandValue) & (regValue ^ result) & 0x80) != 0 ? "1" : "0"); // Overflow
-
-        setRegValue(reg, String.format("%02X", result & 0xFF));
-    }
-
-    public void executeCMP(Instruction instr) {
-        String reg = instr.opcode.substring(3); // Registre à comparer
-        int regVal = Integer.parseInt(getRegValue(reg), 16);
-        String operand = instr.operand;
-        String mode = instr.detectMode().name();
-        int memVal = 0;
-
-        // Déterminer la valeur de l'opérande selon le mode
-        switch (mode) {
-            case "immediat":
-                memVal = Integer.parseInt(operand.replace("#", "").replace("$", ""), 16);
-                break;
-            case "direct":
-                memVal = Integer.parseInt(rom.romMemoryData.getOrDefault(DP.valueLabel.getText() + operand.replace("$", ""), "00"), 16);
-                break;
-            case "etendu":
-                memVal = Integer.parseInt(rom.romMemoryData.getOrDefault(operand.replace("$", ""), "00"), 16);
-                break;
+    public void executeRTS(DecodedOp op) {
+        // Retour de sous-programme
+        if (!callStack.isEmpty()) {
+            int address = callStack.pop();
+            if (program.at(address) == null && address != program.endAddress)
+                throw new IllegalStateException("Adresse de retour invalide : " + CpuView.hex16(address));
+            state.pc = address;
+        } else {
+            state.halted = true;
         }
-
-        int result = regVal - memVal;
-
-        // Mise à jour des flags
-        Z.valueLabel.setText((result & 0xFF) == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        C.valueLabel.setText(result < 0 ? "1" : "0");
     }
 
-    public void executeINC(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        int result = Integer.parseInt(getRegValue(reg), 16) + 1;
+    public void executeAND(DecodedOp op) {
+        and(op.opcode.reg, operandValue8(op));
+    }
 
-        // Flags
-        Z.valueLabel.setText((result & 0xFF) == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText((Integer.parseInt(getRegValue(reg), 16) == 0x7F) ? "1" : "0");
+    public void executeOR(DecodedOp op) {
+        or(op.opcode.reg, operandValue8(op));
+    }
 
-        setRegValue(reg, String.format("%02X", result & 0xFF));
+    private void executeEOR(DecodedOp op) {
+        eor(op.opcode.reg, operandValue8(op));
     }
 
-    public void executeDEC(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        int currentValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = currentValue - 1;
+    // Opérations élémentaires, communes au programme décodé et à l'interpréteur d'octets (ByteInterpreter)
 
-        // Flags
-        Z.valueLabel.setText((result & 0xFF) == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText((currentValue == 0x80) ? "1" : "0");
+    void ld(int reg, int value) {
+        state.set(reg, value); // Met à jour le registre
 
-        setRegValue(reg, String.format("%02X", result & 0xFF));
+        // Flags N, Z et V (évalués à la lecture)
+        state.deferFlags(CpuState.isWide(reg) ? CpuState.FLAGS_LOGIC16 : CpuState.FLAGS_LOGIC8, value);
     }
 
-    public void executeLSL(Instruction instr) {
-        String reg = instr.opcode.substring(3,4);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int carry = (val & 0x80) >> 7;
-        int result = (val << 1) & 0xFF;
-
-        setRegValue(reg, String.format("%02X", result));
-        C.valueLabel.setText(String.valueOf(carry));
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
+    void st(int reg, int address) {
+        int value = state.get(reg);
+        if (CpuState.isWide(reg)) {
+            memory.write16(address, value);
+            state.deferFlags(CpuState.FLAGS_LOGIC16, value);
+        } else {
+            memory.write8(address, value);
+            state.deferFlags(CpuState.FLAGS_LOGIC8, value);
+        }
     }
 
-    public void executeLSR(Instruction instr) {
-        String reg = instr.opcode.substring(3,4);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int carry = val & 0x01;
-        int result = (val >> 1) & 0xFF;
+    void add(int reg, int operandValue) {
+        int regValue = state.get(reg);
+        int entry = AluTables.ADD[(regValue << 8) | operandValue]; // Résultat et flags H, N, Z, V, C
 
-        setRegValue(reg, String.format("%02X", result));
-        C.valueLabel.setText(String.valueOf(carry));
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText("0");
+        setAlu(operandValue, regValue, entry);
+        state.deferTable(AluTables.ADD_FLAGS, entry);
+        state.set(reg, entry);
     }
 
-    public void executeROL(Instruction instr) {
-        String reg = instr.opcode.substring(3,4);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int carryIn = Integer.parseInt(C.valueLabel.getText());
-        int carryOut = (val & 0x80) >> 7;
-        int result = ((val << 1) & 0xFF) | carryIn;
+    void sub(int reg, int operandValue) {
+        int regValue = state.get(reg);
+        int entry = AluTables.SUB[(regValue << 8) | operandValue]; // Résultat et flags N, Z, V, C / emprunt
 
-        setRegValue(reg, String.format("%02X", result));
-        C.valueLabel.setText(String.valueOf(carryOut));
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
+        setAlu(operandValue, regValue, entry);
+        state.deferTable(AluTables.SUB_FLAGS, entry);
+        state.set(reg, entry);
     }
 
-    public void executeROR(Instruction instr) {
-        String reg = instr.opcode.substring(3,4);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int carryIn = Integer.parseInt(C.valueLabel.getText());
-        int carryOut = val & 0x01;
-        int result = ((carryIn << 7) | (val >> 1)) & 0xFF;
-
-        setRegValue(reg, String.format("%02X", result));
-        C.valueLabel.setText(String.valueOf(carryOut));
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
+    void cmp(int reg, int operandValue) {
+        // Flags N, Z, V et C de la soustraction, sans modifier le registre
+        state.deferTable(AluTables.SUB_FLAGS, AluTables.SUB[(state.get(reg) << 8) | operandValue]);
     }
 
-    public void executeNOP(Instruction instr) { 
-        // Instruction NOP : ne fait rien
+    void inc(int reg) {
+        int entry = AluTables.INC[state.get(reg)]; // Résultat et flags N, Z, V
+        state.deferTable(AluTables.INC_FLAGS, entry);
+        state.set(reg, entry);
     }
 
-    public void executeCLR(Instruction instr) { 
-        setRegValue(instr.opcode.substring(3), "00"); 
-        Z.valueLabel.setText("1");
-        N.valueLabel.setText("0");
-        V.valueLabel.setText("0");
-        C.valueLabel.setText("0");
+    void dec(int reg) {
+        int entry = AluTables.DEC[state.get(reg)]; // Résultat et flags N, Z, V
+        state.deferTable(AluTables.INC_FLAGS, entry);
+        state.set(reg, entry);
     }
 
-    public void executeSWI(Instruction instr) { 
-        currentLineIndex = codeLines.length; 
-        JOptionPane.showMessageDialog(null, "Execution step by step done !");
+    void lsl(int reg) {
+        int entry = AluTables.LSL[state.get(reg)];
+        state.set(reg, entry);
+        state.deferTable(AluTables.SHL_FLAGS, entry);
     }
 
-    public void executeEND(Instruction instr) { 
-        currentLineIndex = codeLines.length; 
-        JOptionPane.showMessageDialog(null, "Execution step by step done !");
+    void lsr(int reg) {
+        int entry = AluTables.LSR[state.get(reg)];
+        state.set(reg, entry);
+        state.deferTable(AluTables.SHR_FLAGS, entry);
     }
 
-    public void executeCOM(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int complementValue = (~val) & 0xFF;
-        setRegValue(reg, String.format("%02X", complementValue));
-        Z.valueLabel.setText(complementValue == 0 ? "1" : "0");
-        N.valueLabel.setText((complementValue & 0x80) != 0 ? "1" : "0");
-        C.valueLabel.setText(complementValue > 0xFF ? "1" : "0");
+    void rol(int reg) {
+        int carryIn = state.flag(CpuState.CC_C) ? 0x100 : 0; // Retenue entrante : seconde moitié de la table
+        int entry = AluTables.ROL[carryIn | state.get(reg)];
+        state.set(reg, entry);
+        state.deferTable(AluTables.SHL_FLAGS, entry);
     }
 
-    public void executeNEG(Instruction instr) {
-        String reg = instr.opcode.substring(3);
-        int val = Integer.parseInt(getRegValue(reg), 16);
-        int negVal = (~val + 1) & 0xFF;
-        setRegValue(reg, String.format("%02X", negVal));
-        C.valueLabel.setText(negVal == 0 ? "0" : "1");
-        Z.valueLabel.setText(negVal == 0 ? "1" : "0");
+    void ror(int reg) {
+        int carryIn = state.flag(CpuState.CC_C) ? 0x100 : 0;
+        int entry = AluTables.ROR[carryIn | state.get(reg)];
+        state.set(reg, entry);
+        state.deferTable(AluTables.SHR_FLAGS, entry);
     }
 
-    public void executeTFR(Instruction instr) {
-        String[] regs = instr.operand.split(",");
-        setRegValue(regs[1].trim(), getRegValue(regs[0].trim()));
+    void clr(int reg) {
+        state.set(reg, 0);
+        state.deferTable(AluTables.SUB_FLAGS, AluTables.SUB[0]); // 0 - 0 : N = 0, Z = 1, V = 0, C = 0
     }
 
-    public void executeEXG(Instruction instr) {
-        String[] regs = instr.operand.split(",");
-        String temp = getRegValue(regs[1].trim());
-        setRegValue(regs[1].trim(), getRegValue(regs[0].trim()));
-        setRegValue(regs[0].trim(), temp);
+    void com(int reg) {
+        int entry = AluTables.COM[state.get(reg)]; // V = 0, C = 1
+        state.set(reg, entry);
+        state.deferTable(AluTables.COM_FLAGS, entry);
     }
 
-    public void executeRTS(Instruction instr) { 
-        // Retour de sous-programme
-        if (!callStack.isEmpty()) {
-            currentAddress = callStack.pop();
-            int index = 0;
-            int addr = 0xFE00;
-
-            // Calcul de la ligne courante correspondant à l'adresse récupérée
-            for (; index < codeLines.length; index++) {
-                if (codeLines[index].isEmpty()) continue;
-
-                int step = 1;
-                String line = codeLines[index].trim();
-                String[] parts = line.split("\\s+");
-
-                if (parts.length > 1) {
-                    String op = Instruction.filterOperand(parts[1]);
-                    step += op.length() / 2;
-                }
-
-                if ((addr + step) > currentAddress) break;
-                addr += step;
-            }
-
-            currentLineIndex = index;
-
-            // Mise à jour des registres de contrôle
-            RI.controlvalueLabel.setText(rom.romMemoryData.get(Instruction.getAddress(currentAddress)));
-            PC.valueLabel.setText(Instruction.getAddress(currentAddress));
-            rom.setCurrent(Instruction.getAddress(currentAddress));
-        } else {
-            currentLineIndex = codeLines.length;
-        }
+    void neg(int reg) {
+        int entry = AluTables.SUB[state.get(reg)]; // NEG = 0 - valeur (index 0 << 8 | valeur)
+        state.set(reg, entry);
+        state.deferTable(AluTables.SUB_FLAGS, entry);
     }
 
-    public void executeAND(Instruction instr) {
-        String reg = instr.opcode.endsWith("A") ? "A" : "B";
-        String mode = instr.detectMode().name();
-        int operandValue = 0;
-
-        switch (mode) {
-            case "immediat":
-                operandValue = Integer.parseInt(instr.operand.replace("#", "").replace("$", ""), 16);
-                break;
-            case "direct":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        DP.valueLabel.getText() + instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "etendu":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "indexe":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        offsetshifter(instr.operand), "00"), 16);
-                break;
-        }
+    void and(int reg, int operandValue) {
+        int result = state.get(reg) & operandValue;
+        state.set(reg, result);
+        state.deferFlags(CpuState.FLAGS_LOGIC8, result); // Flags N, Z et V (évalués à la lecture)
+    }
 
-        int regValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = regValue & operandValue;
-
-        setRegValue(reg, String.format("%02X", result));
-
-        // Mise à jour des flags
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText("0");
-    }
-
-    public void executeOR(Instruction instr) {
-        String reg = instr.opcode.endsWith("A") ? "A" : "B";
-        String mode = instr.detectMode().name();
-        int operandValue = 0;
-
-        switch (mode) {
-            case "immediat":
-                operandValue = Integer.parseInt(instr.operand.replace("#", "").replace("$", ""), 16);
-                break;
-            case "direct":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        DP.valueLabel.getText() + instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "etendu":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "indexe":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        offsetshifter(instr.operand), "00"), 16);
-                break;
-        }
+    void or(int reg, int operandValue) {
+        int result = state.get(reg) | operandValue;
+        state.set(reg, result);
+        state.deferFlags(CpuState.FLAGS_LOGIC8, result);
+    }
 
-        int regValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = regValue | operandValue;
-
-        setRegValue(reg, String.format("%02X", result));
-
-        // Flags
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText("0");
-    }
-
-    private void executeEOR(Instruction instr) {
-        String reg = instr.opcode.endsWith("A") ? "A" : "B";
-        String mode = instr.detectMode().name();
-        int operandValue = 0;
-
-        switch (mode) {
-            case "immediat":
-                operandValue = Integer.parseInt(instr.operand.replace("#", "").replace("$", ""), 16);
-                break;
-            case "direct":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        DP.valueLabel.getText() + instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "etendu":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        instr.operand.replace("$", ""), "00"), 16);
-                break;
-            case "indexe":
-                operandValue = Integer.parseInt(ram.RamMemoryData.getOrDefault(
-                        offsetshifter(instr.operand), "00"), 16);
-                break;
-        }
+    void eor(int reg, int operandValue) {
+        int result = state.get(reg) ^ operandValue;
+        state.set(reg, result);
+        state.deferFlags(CpuState.FLAGS_LOGIC8, result);
+    }
 
-        int regValue = Integer.parseInt(getRegValue(reg), 16);
-        int result = regValue ^ operandValue;
+    // Post-byte : registre source (4 bits de poids fort) et destination (4 bits de poids faible)
+    void tfr(int postByte) {
+        state.set(postByte & 0x0F, state.get(postByte >> 4));
+    }
 
-        setRegValue(reg, String.format("%02X", result));
+    void exg(int postByte) {
+        int source = postByte >> 4;
+        int destination = postByte & 0x0F;
+        int temp = state.get(destination);
+        state.set(destination, state.get(source));
+        state.set(source, temp);
+    }
 
-        // Flags
-        Z.valueLabel.setText(result == 0 ? "1" : "0");
-        N.valueLabel.setText((result & 0x80) != 0 ? "1" : "0");
-        V.valueLabel.setText("0");
+    // Mémorise la dernière opération de l'ALU pour l'affichage
+    private void setAlu(int left, int right, int result) {
+        state.aluLeft = left & 0xFF;
+        state.aluRight = right & 0xFF;
+        state.aluResult = result & 0xFF;
     }
 
     // Instructions de saut
-    public void executeJMP(Instruction instr) {
-        jumpToLabel(instr.operand); // Jump inconditionnel
+    public void executeJMP(DecodedOp op) {
+        if (op.mode == Instruction.AddressingMode.indexe) state.pc = effectiveAddress(op); // JMP n,R
+        else branch(op); // Jump inconditionnel
     }
 
-    public void executeBEQ(Instruction instr) {
-        if (Z.valueLabel.getText().equals("1")) jumpToLabel(instr.operand); // Branch si zéro
+    public void executeBEQ(DecodedOp op) {
+        if (state.flag(CpuState.CC_Z)) branch(op); // Branch si zéro
     }
 
-    public void executeBNE(Instruction instr) {
-        if (Z.valueLabel.getText().equals("0")) jumpToLabel(instr.operand); // Branch si non zéro
+    public void executeBNE(DecodedOp op) {
+        if (!state.flag(CpuState.CC_Z)) branch(op); // Branch si non zéro
     }
 
-    public void executeBMI(Instruction instr) {
-        if (N.valueLabel.getText().equals("1")) jumpToLabel(instr.operand); // Branch si négatif
+    public void executeBMI(DecodedOp op) {
+        if (state.flag(CpuState.CC_N)) branch(op); // Branch si négatif
     }
 
-    public void executeBPL(Instruction instr) {
-        if (N.valueLabel.getText().equals("0")) jumpToLabel(instr.operand); // Branch si positif
+    public void executeBPL(DecodedOp op) {
+        if (!state.flag(CpuState.CC_N)) branch(op); // Branch si positif
     }
 
-    public void executeBCC(Instruction instr) {
-        if (C.valueLabel.getText().equals("0")) jumpToLabel(instr.operand); // Branch si pas de retenue
+    public void executeBCC(DecodedOp op) {
+        if (!state.flag(CpuState.CC_C)) branch(op); // Branch si pas de retenue
     }
 
-    public void executeBCS(Instruction instr) {
-        if (C.valueLabel.getText().equals("1")) jumpToLabel(instr.operand); // Branch si retenue
+    public void executeBCS(DecodedOp op) {
+        if (state.flag(CpuState.CC_C)) branch(op); // Branch si retenue
     }
 
-    public void executeBVC(Instruction instr) {
-        if (V.valueLabel.getText().equals("0")) jumpToLabel(instr.operand); // Branch si pas de overflow
+    public void executeBVC(DecodedOp op) {
+        if (!state.flag(CpuState.CC_V)) branch(op); // Branch si pas de overflow
     }
 
-    public void executeBVS(Instruction instr) {
-        if (V.valueLabel.getText().equals("1")) jumpToLabel(instr.operand); // Branch si overflow
+    public void executeBVS(DecodedOp op) {
+        if (state.flag(CpuState.CC_V)) branch(op); // Branch si overflow
     }
 
-    public void executeBRA(Instruction instr) {
-        jumpToLabel(instr.operand); // Branch inconditionnel
+    public void executeBRA(DecodedOp op) {
+        branch(op); // Branch inconditionnel
     }
 }
@@ -0,0 +1,208 @@
+package cpu;
+
+// Classe CpuState
+// État interne du processeur 6809 sous forme de valeurs primitives,
+// totalement indépendant de l'interface graphique (aucun composant Swing ici)
+public class CpuState {
+
+    // Bits du registre de condition CC (E F H I N Z V C)
+    public static final int CC_C = 0x01; // Retenue (Carry)
+    public static final int CC_V = 0x02; // Débordement (Overflow)
+    public static final int CC_Z = 0x04; // Zéro
+    public static final int CC_N = 0x08; // Négatif
+    public static final int CC_I = 0x10; // Masque IRQ
+    public static final int CC_H = 0x20; // Demi-retenue (Half carry)
+    public static final int CC_F = 0x40; // Masque FIRQ
+    public static final int CC_E = 0x80; // État complet empilé (Entire)
+
+    // Codes des registres (identiques aux codes du post-byte TFR/EXG)
+    public static final int REG_D = 0x0, REG_X = 0x1, REG_Y = 0x2, REG_U = 0x3, REG_S = 0x4, REG_PC = 0x5;
+    public static final int REG_A = 0x8, REG_B = 0x9, REG_CC = 0xA, REG_DP = 0xB;
+    public static final int REG_NONE = -1;
+
+    public static final int RESET_PC = 0xFE00; // Adresse de démarrage du programme
+
+    // Évaluation différée des flags : type de la dernière opération de l'ALU.
+    // L'octet de poids faible de chaque type contient les flags qu'il calcule.
+    public static final int FLAGS_NONE = 0;                                          // Aucun flag en attente
+    public static final int FLAGS_LOGIC8 = 0x100 | CC_N | CC_Z | CC_V;               // Chargement, stockage, AND, OR, EOR 8 bits (V = 0)
+    public static final int FLAGS_LOGIC16 = 0x200 | CC_N | CC_Z | CC_V;              // Chargement, stockage 16 bits (V = 0)
+    public static final int FLAGS_TABLE = 0x400;  // Entrée d'AluTables (résultat et flags déjà calculés), à combiner avec son masque
+
+    // Registres du processeur
+    public int a, b;           // Accumulateurs 8 bits
+    public int x, y, u, s;     // Registres d'index et pointeurs de pile 16 bits
+    public int pc = RESET_PC;  // Compteur programme
+    public int dp;             // Registre de page directe
+    private int cc = CC_Z;     // Registre de condition empaqueté (sans les flags en attente)
+    public int ri;             // Registre d'instruction (dernier opcode lu)
+    public boolean halted;     // Vrai après END/SWI : le programme est terminé
+    public long cycles;        // Cycles d'horloge écoulés depuis la remise à zéro
+
+    // Dernière opération de l'ALU (pour l'affichage)
+    public int aluLeft, aluRight, aluResult;
+
+    // Opération dont les flags n'ont pas encore été calculés
+    private int flagsKind = FLAGS_NONE;
+    private int flagsResult;
+
+    // Remet tous les registres à leur valeur initiale
+    public void reset() {
+        a = b = dp = ri = 0;
+        x = y = u = s = 0;
+        pc = RESET_PC;
+        cc = CC_Z;
+        flagsKind = FLAGS_NONE;
+        halted = false;
+        cycles = 0;
+        aluLeft = aluRight = aluResult = 0;
+    }
+
+    // Copie de l'état (utilisée pour publier l'état vers l'interface graphique)
+    public CpuState copy() {
+        CpuState copy = new CpuState();
+        copy.a = a; copy.b = b;
+        copy.x = x; copy.y = y; copy.u = u; copy.s = s;
+        copy.pc = pc; copy.dp = dp; copy.cc = getCC(); copy.ri = ri;
+        copy.halted = halted;
+        copy.cycles = cycles;
+        copy.aluLeft = aluLeft; copy.aluRight = aluRight; copy.aluResult = aluResult;
+        return copy;
+    }
+
+    // Registre CC complet (les flags en attente sont calculés à ce moment)
+    public int getCC() {
+        if (flagsKind != FLAGS_NONE) evaluateFlags();
+        return cc;
+    }
+
+    public void setCC(int value) {
+        cc = value & 0xFF;
+        flagsKind = FLAGS_NONE;
+    }
+
+    // Flags bruts, sans calculer ceux en attente (journal du retour arrière) :
+    // CC sans les flags en attente, nature et résultat de l'opération en attente
+    int rawCC() {
+        return cc;
+    }
+
+    int pendingFlags() {
+        return flagsKind;
+    }
+
+    int pendingResult() {
+        return flagsResult;
+    }
+
+    // Remet les flags bruts lus par rawCC, pendingFlags et pendingResult
+    void restoreFlags(int rawCC, int kind, int result) {
+        cc = rawCC;
+        flagsKind = kind;
+        flagsResult = result;
+    }
+
+    // Lecture d'un bit du registre CC
+    public boolean flag(int mask) {
+        if ((flagsKind & mask) != 0) {
+            // Z et N (les plus lus par les branchements) se déduisent directement du résultat
+            int width = flagsKind == FLAGS_LOGIC16 ? 0xFFFF : 0xFF;
+            if (mask == CC_Z) return (flagsResult & width) == 0;
+            if (mask == CC_N) return (flagsResult & (width ^ (width >> 1))) != 0;
+            if (mask == CC_C) return pendingCarry(); // Retenue lue par ROL, ROR, BCC, BCS
+            evaluateFlags();
+        }
+        return (cc & mask) != 0;
+    }
+
+    // Mémorise une entrée d'AluTables : les flags de mask sont pris dans l'entrée à la lecture
+    public void deferTable(int mask, int entry) {
+        deferFlags(FLAGS_TABLE | mask, entry);
+    }
+
+    // Mémorise une opération de l'ALU sans calculer ses flags : ils ne sont évalués
+    // que lorsqu'ils sont lus (branchement, TFR/EXG CC, affichage)
+    public void deferFlags(int kind, int result) {
+        // Les flags en attente non recalculés par la nouvelle opération doivent être conservés
+        if ((flagsKind & ~kind & 0xFF) != 0) evaluateFlags();
+        flagsKind = kind;
+        flagsResult = result;
+    }
+
+    // Calcule les flags de l'opération en attente et les range dans CC
+    private void evaluateFlags() {
+        int result = flagsResult;
+        int flags;
+        switch (flagsKind) {
+            case FLAGS_LOGIC8:
+                flags = nz8(result);
+                break;
+            case FLAGS_LOGIC16:
+                flags = ((result & 0x8000) != 0 ? CC_N : 0) | ((result & 0xFFFF) == 0 ? CC_Z : 0);
+                break;
+            default: // FLAGS_TABLE : flags déjà présents dans l'entrée
+                flags = (result >>> 8) & flagsKind;
+        }
+        cc = (cc & ~(flagsKind & 0xFF)) | flags;
+        flagsKind = FLAGS_NONE;
+    }
+
+    // Retenue de l'opération en attente (sans évaluer les autres flags)
+    private boolean pendingCarry() {
+        if ((flagsKind & FLAGS_TABLE) != 0) return (flagsResult & (CC_C << 8)) != 0;
+        return (cc & CC_C) != 0; // Les opérations logiques ne modifient pas C
+    }
+
+    private static int nz8(int value) {
+        return ((value & 0x80) != 0 ? CC_N : 0) | ((value & 0xFF) == 0 ? CC_Z : 0);
+    }
+
+    // Registre D = A:B
+    public int getD() {
+        return (a << 8) | b;
+    }
+
+    public void setD(int value) {
+        a = (value >> 8) & 0xFF;
+        b = value & 0xFF;
+    }
+
+    // Indique si un registre est sur 16 bits (codes 0 à 5)
+    public static boolean isWide(int reg) {
+        return reg < REG_A;
+    }
+
+    // Retourne la valeur d'un registre à partir de son code
+    public int get(int reg) {
+        switch (reg) {
+            case REG_A: return a;
+            case REG_B: return b;
+            case REG_D: return getD();
+            case REG_X: return x;
+            case REG_Y: return y;
+            case REG_U: return u;
+            case REG_S: return s;
+            case REG_PC: return pc;
+            case REG_DP: return dp;
+            case REG_CC: return getCC();
+            default: throw new IllegalArgumentException("Registre inconnu: " + reg);
+        }
+    }
+
+    // Modifie un registre à partir de son code (la valeur est tronquée à la taille du registre)
+    public void set(int reg, int value) {
+        switch (reg) {
+            case REG_A: a = value & 0xFF; break;
+            case REG_B: b = value & 0xFF; break;
+            case REG_D: setD(value & 0xFFFF); break;
+            case REG_X: x = value & 0xFFFF; break;
+            case REG_Y: y = value & 0xFFFF; break;
+            case REG_U: u = value & 0xFFFF; break;
+            case REG_S: s = value & 0xFFFF; break;
+            case REG_PC: pc = value & 0xFFFF; break;
+            case REG_DP: dp = value & 0xFF; break;
+            case REG_CC: setCC(value); break;
+            default: throw new IllegalArgumentException("Registre inconnu: " + reg);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cpu;
+
+import ui.BitDisplay;
+import ui.ControlPanel;
+
+// Classe CpuView
+// Vue graphique de l'état du CPU : les composants Swing ne contiennent plus
+// les valeurs, ils sont simplement rafraîchis à partir d'un CpuState
+public class CpuView {
+
+    private final Registers A, B, X, Y, U, S, PC, DP; // Registres principaux
+    private final Registers N, Z, V, C, H;            // Flags
+    private final ControlPanel RI;                    // Registre d'instruction
+    private final ControlPanel cycles;                // Compteur de cycles d'horloge
+    private final ALU alu;                            // Affichage de l'ALU
+    private final BitDisplay binA, binB;              // Affichage binaire de A et B
+    private CpuState shown;                           // Dernier état affiché (null avant le premier affichage)
+
+    // Constructeur
+    public CpuView(Registers A, Registers B,
+                   Registers X, Registers Y,
+                   Registers U, Registers S,
+                   Registers PC, Registers DP, ControlPanel RI,
+                   Registers N, Registers Z,
+                   Registers V, Registers C, Registers H,
+                   ALU alu, BitDisplay binA, BitDisplay binB, ControlPanel cycles) {
+        this.A = A; this.B = B;
+        this.X = X; this.Y = Y;
+        this.U = U; this.S = S;
+        this.PC = PC; this.DP = DP;
+        this.RI = RI;
+        this.N = N; this.Z = Z; this.V = V; this.C = C; this.H = H;
+        this.alu = alu;
+        this.binA = binA;
+        this.binB = binB;
+        this.cycles = cycles;
+    }
+
+    // Rafraîchit les composants à partir de l'état du CPU :
+    // seuls les registres dont la valeur a changé depuis le dernier affichage sont redessinés
+    public void refresh(CpuState state) {
+        CpuState old = shown;
+        boolean all = old == null;
+
+        if (all || old.a != state.a) {
+            A.valueLabel.setText(hex8(state.a));
+            binA.valueLabel.setText(binary8(state.a));
+        }
+        if (all || old.b != state.b) {
+            B.valueLabel.setText(hex8(state.b));
+            binB.valueLabel.setText(binary8(state.b));
+        }
+        if (all || old.x != state.x) X.valueLabel.setText(hex16(state.x));
+        if (all || old.y != state.y) Y.valueLabel.setText(hex16(state.y));
+        if (all || old.u != state.u) U.valueLabel.setText(hex16(state.u));
+        if (all || old.s != state.s) S.valueLabel.setText(hex16(state.s));
+        if (all || old.pc != state.pc) PC.valueLabel.setText(hex16(state.pc));
+        if (all || old.dp != state.dp) DP.valueLabel.setText(hex8(state.dp));
+        if (all || old.ri != state.ri) RI.controlvalueLabel.setText(hex8(state.ri));
+        if (all || old.cycles != state.cycles) cycles.controlvalueLabel.setText(Long.toString(state.cycles));
+
+        if (all || old.getCC() != state.getCC()) {
+            N.valueLabel.setText(bit(state, CpuState.CC_N));
+            Z.valueLabel.setText(bit(state, CpuState.CC_Z));
+            V.valueLabel.setText(bit(state, CpuState.CC_V));
+            C.valueLabel.setText(bit(state, CpuState.CC_C));
+            H.valueLabel.setText(bit(state, CpuState.CC_H));
+        }
+
+        if (all || old.aluLeft != state.aluLeft || old.aluRight != state.aluRight || old.aluResult != state.aluResult) {
+            alu.updateALU(hex8(state.aluLeft), hex8(state.aluRight), hex8(state.aluResult));
+        }
+
+        shown = state.copy();
+    }
+
+    // Fonctions de formatage
+    public static String hex8(int value) {
+        return String.format("%02X", value & 0xFF);
+    }
+
+    public static String hex16(int value) {
+        return String.format("%04X", value & 0xFFFF);
+    }
+
+    public static String binary8(int value) {
+        return String.format("%8s", Integer.toBinaryString(value & 0xFF)).replace(' ', '0');
+    }
+
+    private static String bit(CpuState state, int mask) {
+        return state.flag(mask) ? "1" : "0";
+    }
+}
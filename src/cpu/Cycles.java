@@ -0,0 +1,100 @@
+package cpu;
+
+import java.util.Arrays;
+
+// Classe Cycles
+// Durée des instructions en cycles d'horloge du 6809 (d'après la fiche technique Motorola) :
+// une table par page d'opcodes, préfixe 10 / 11 compris dans la durée de la page, et les
+// cycles supplémentaires du mode indexé selon le post-byte. Toutes les instructions supportées
+// ont une durée fixe (les branchements courts durent 3 cycles, pris ou non) : la durée ne
+// dépend que des octets de l'instruction.
+public final class Cycles {
+
+    public static final int[] PAGE0 = new int[256];   // Opcodes sans préfixe (0 pour les préfixes 10 et 11)
+    public static final int[] PAGE10 = new int[256];  // Opcodes préfixés par 10, préfixe compris
+    public static final int[] PAGE11 = new int[256];  // Opcodes préfixés par 11, préfixe compris
+    public static final int[] INDEXED = new int[256]; // Cycles ajoutés par chaque post-byte indexé
+
+    private Cycles() {
+    }
+
+    static {
+        // Chargement, arithmétique et logique 8 bits : immédiat, direct, indexé, étendu
+        for (int base : new int[] { 0x86, 0xC6, 0x8B, 0xCB, 0x80, 0xC0, 0x81, 0xC1,
+                                    0x84, 0xC4, 0x8A, 0xCA, 0x88, 0xC8 }) {
+            family(PAGE0, base, 2, 4, 4, 5);
+        }
+        family(PAGE0, 0x8E, 3, 5, 5, 6);    // LDX
+        family(PAGE0, 0xCE, 3, 5, 5, 6);    // LDU
+        family(PAGE10, 0x8E, 4, 6, 6, 7);   // LDY
+        family(PAGE10, 0xCE, 4, 6, 6, 7);   // LDS
+        memoryModes(PAGE0, 0x97, 4, 4, 5);  // STA
+        memoryModes(PAGE0, 0xD7, 4, 4, 5);  // STB
+        memoryModes(PAGE0, 0x9F, 5, 5, 6);  // STX
+        memoryModes(PAGE0, 0xDF, 5, 5, 6);  // STU
+        memoryModes(PAGE10, 0x9F, 6, 6, 7); // STY
+        memoryModes(PAGE10, 0xDF, 6, 6, 7); // STS
+
+        // Instructions inhérentes sur A (4x) et B (5x)
+        Arrays.fill(PAGE0, 0x40, 0x60, 2);
+
+        // Instructions système, transferts, sauts et branchements
+        PAGE0[0x12] = 2;                    // NOP
+        PAGE0[0x3F] = 19;                   // SWI / END
+        PAGE0[0x39] = 5;                    // RTS
+        PAGE0[0x1F] = 6;                    // TFR
+        PAGE0[0x1E] = 8;                    // EXG
+        PAGE0[0x7E] = 4;                    // JMP étendu
+        PAGE0[0x6E] = 3;                    // JMP indexé
+        Arrays.fill(PAGE0, 0x20, 0x30, 3);  // BRA, Bcc
+        PAGE0[0x16] = 5;                    // LBRA
+        Arrays.fill(PAGE10, 0x24, 0x2C, 5); // LBcc non pris (6 si pris : cycle ajouté à l'exécution)
+
+        // Mode indexé : n,R sur 5 bits (bit 7 à 0), sinon selon les bits 0-3, indirect [ ] : 3 cycles de plus
+        int[] extra = { 2, 3, 2, 3, 0, 1, 1, 0, 1, 4, 0, 4, 1, 5, 0, 2 };
+        for (int postByte = 0; postByte < 0x100; postByte++) {
+            if ((postByte & 0x80) == 0) {
+                INDEXED[postByte] = 1;
+            } else {
+                INDEXED[postByte] = extra[postByte & 0x0F] + ((postByte & 0x10) != 0 ? 3 : 0);
+            }
+        }
+    }
+
+    // Modes immédiat, direct, indexé et étendu d'une famille (base = opcode immédiat)
+    private static void family(int[] page, int base, int immediate, int direct, int indexed, int extended) {
+        page[base] = immediate;
+        memoryModes(page, base + 0x10, direct, indexed, extended);
+    }
+
+    private static void memoryModes(int[] page, int base, int direct, int indexed, int extended) {
+        page[base] = direct;
+        page[base + 0x10] = indexed;
+        page[base + 0x20] = extended;
+    }
+
+    // Vrai si l'opcode est suivi d'un post-byte indexé (lignes 6x, Ax et Ex)
+    public static boolean isIndexed(int opcode) {
+        int high = opcode & 0xF0;
+        return high == 0x60 || high == 0xA0 || high == 0xE0;
+    }
+
+    // Cycles de l'instruction dont les trois premiers octets sont donnés
+    public static int of(int first, int second, int third) {
+        if (first == 0x10 || first == 0x11) {
+            int cycles = (first == 0x10 ? PAGE10 : PAGE11)[second];
+            return isIndexed(second) ? cycles + INDEXED[third] : cycles;
+        }
+        return isIndexed(first) ? PAGE0[first] + INDEXED[second] : PAGE0[first];
+    }
+
+    // Cycles de l'instruction à une adresse mémoire
+    public static int of(Memory memory, int address) {
+        return of(memory.read8(address), memory.read8((address + 1) & 0xFFFF), memory.read8((address + 2) & 0xFFFF));
+    }
+
+    // Cycles d'une instruction assemblée
+    public static int of(int[] bytes) {
+        return of(bytes[0], bytes.length > 1 ? bytes[1] : 0, bytes.length > 2 ? bytes[2] : 0);
+    }
+}
@@ -0,0 +1,32 @@
+package cpu;
+
+// Classe DecodedOp
+// Instruction décodée une seule fois lors de l'enregistrement du programme :
+// opcode, mode d'adressage et opérande déjà convertis en valeurs numériques.
+public class DecodedOp {
+
+    public final Opcode opcode;                      // Instruction
+    public final Instruction.AddressingMode mode;    // Mode d'adressage
+    public final int value;     // Valeur immédiate, adresse, offset indexé (adresse pour [n]) ou post-byte TFR/EXG
+    public final int reg;       // Registre d'index pour le mode indexé (REG_PC pour n,PCR)
+    public final String label;  // Label cible pour les branchements (null sinon)
+    public final int line;      // Ligne du code source
+    public final int length;    // Taille de l'instruction en octets
+    public int address;         // Adresse de l'instruction en ROM
+    public int[] bytes;         // Code machine de l'instruction
+    public int target = -1;     // Adresse cible des branchements, résolue à l'assemblage
+    public int cycles;          // Durée de l'instruction en cycles d'horloge
+    public int postByte = -1;   // Post-byte du mode indexé (-1 dans les autres modes)
+
+    // Constructeur
+    public DecodedOp(Opcode opcode, Instruction.AddressingMode mode, int value, int reg,
+                     String label, int line, int length) {
+        this.opcode = opcode;
+        this.mode = mode;
+        this.value = value;
+        this.reg = reg;
+        this.label = label;
+        this.line = line;
+        this.length = length;
+    }
+}
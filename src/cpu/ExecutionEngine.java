@@ -0,0 +1,310 @@
+package cpu;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+import javax.swing.SwingUtilities;
+
+// Classe ExecutionEngine
+// Exécute le CPU sur un thread dédié (hors de l'Event Dispatch Thread) :
+// démarrage, pause, arrêt et pas à pas. L'interface graphique reçoit des copies
+// de l'état du CPU à une fréquence bornée, elle ne lit jamais l'état en cours d'exécution.
+// Si l'EDT est en retard, les images en attente sont fusionnées : un seul rafraîchissement.
+// La vitesse est réglée par un gouverneur : turbo (sans limite), temps réel (fréquence d'horloge
+// respectée grâce aux cycles émulés) ou animé (quelques instructions par seconde, pour les démonstrations).
+// Les pauses sont faites par lot (LockSupport.parkNanos), jamais après chaque instruction.
+public class ExecutionEngine {
+
+    // Modes de vitesse
+    public enum Mode { TURBO, REAL_TIME, ANIMATED }
+
+    // Vitesse d'exécution : mode et cadence (fréquence en Hz en temps réel, instructions/s en mode animé)
+    public static class Speed {
+        public final String name;
+        public final Mode mode;
+        public final long rate;
+
+        public Speed(String name, Mode mode, long rate) {
+            if (mode != Mode.TURBO && rate <= 0) {
+                throw new IllegalArgumentException("Cadence invalide pour " + name + " : " + rate);
+            }
+            this.name = name;
+            this.mode = mode;
+            this.rate = rate;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Vitesses proposées dans l'interface
+    public static final Speed TURBO = new Speed("Turbo", Mode.TURBO, 0);
+    public static final Speed[] SPEEDS = {
+        TURBO,
+        new Speed("1 MHz", Mode.REAL_TIME, 1_000_000),
+        new Speed("1,5 MHz", Mode.REAL_TIME, 1_500_000),
+        new Speed("2 MHz", Mode.REAL_TIME, 2_000_000),
+        new Speed("Animé 2 instr/s", Mode.ANIMATED, 2),
+        new Speed("Animé 10 instr/s", Mode.ANIMATED, 10)
+    };
+
+    // Interface de notification (toujours appelée sur l'EDT)
+    public interface Listener {
+        void stateChanged(Frame frame);
+        void executionFinished(Frame frame);
+        void breakpointHit(Frame frame);
+    }
+
+    // Image de l'état à afficher : copie du CPU et plage RAM modifiée depuis l'image précédente
+    public static class Frame {
+        public final CpuState state;  // Copie de l'état du CPU
+        public final int lastAddress; // Adresse de la dernière instruction exécutée
+        public int dirtyLow;          // Plage RAM à rafraîchir (dirtyHigh < dirtyLow si aucune)
+        public int dirtyHigh;
+        public String error;          // Message d'erreur d'exécution (null si aucun)
+        public String breakpoint;     // Point d'arrêt ou d'observation atteint (null si aucun)
+
+        Frame(CpuState state, int lastAddress, int dirtyLow, int dirtyHigh, String error) {
+            this.state = state;
+            this.lastAddress = lastAddress;
+            this.dirtyLow = dirtyLow;
+            this.dirtyHigh = dirtyHigh;
+            this.error = error;
+        }
+
+        // Fusionne une image plus ancienne qui n'a pas encore été affichée
+        void merge(Frame older) {
+            dirtyLow = Math.min(dirtyLow, older.dirtyLow);
+            dirtyHigh = Math.max(dirtyHigh, older.dirtyHigh);
+            if (error == null) error = older.error;
+            if (breakpoint == null) breakpoint = older.breakpoint;
+        }
+
+        public boolean isFinished() {
+            return state.halted || error != null;
+        }
+    }
+
+    public static final int BATCH_SIZE = 4096;                      // Instructions exécutées entre deux vérifications
+    public static final long REFRESH_NANOS = 1_000_000_000L / 30;   // Au plus 30 rafraîchissements par seconde
+    public static final long MIN_PARK_NANOS = 1_000_000L;           // Avance minimale avant de suspendre le thread
+    public static final long MAX_LAG_NANOS = 100_000_000L;          // Retard au-delà duquel la cadence repart de zéro
+
+    private final CPU cpu;
+    private final Listener listener;
+    private final Object lock = new Object(); // Protège l'état du CPU pendant l'exécution d'un lot
+    private Thread worker;
+    private volatile boolean running = false;
+    private long lastPublish = 0;
+    private Frame pending; // Image en attente d'affichage (protégée par this)
+    private volatile Speed speed = TURBO;
+    private volatile boolean resync = true; // La référence de cadence doit être reprise
+    private long anchorNanos;               // Référence de cadence : instant réel
+    private long anchorCycles;              // ... cycles émulés
+    private long anchorInstructions;        // ... instructions exécutées
+    private long instructions;              // Instructions exécutées depuis la création du moteur
+
+    // Constructeur
+    public ExecutionEngine(CPU cpu, Listener listener) {
+        this.cpu = cpu;
+        this.listener = listener;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Speed getSpeed() {
+        return speed;
+    }
+
+    // Change la vitesse, y compris pendant l'exécution (prise en compte au lot suivant)
+    public void setSpeed(Speed speed) {
+        this.speed = speed;
+        resync = true;
+        if (worker != null) LockSupport.unpark(worker);
+    }
+
+    // Lance l'exécution continue sur le thread d'exécution
+    public void start() {
+        synchronized (lock) {
+            if (running || cpu.state.halted) return;
+            running = true;
+            resync = true;
+            cpu.breakpoints.resume(cpu.state.pc); // Reprise sur un point d'arrêt : pas d'arrêt immédiat
+            if (worker == null) {
+                worker = new Thread(this::loop, "cpu-execution");
+                worker.setDaemon(true);
+                worker.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    // Suspend l'exécution : rend la main après le lot en cours
+    public void pause() {
+        running = false;
+        if (worker != null) LockSupport.unpark(worker); // Interrompt une attente du gouverneur
+        synchronized (lock) {
+            // Attend la fin du lot en cours avant de rendre la main
+        }
+    }
+
+    // Arrête l'exécution : le CPU n'est plus modifié après le retour de cette méthode, et aucune
+    // image d'avant l'arrêt n'est plus affichée (l'appelant réinitialise ou recharge l'affichage).
+    // La plage RAM de l'image retirée est rendue à la mémoire : le prochain rafraîchissement la couvre.
+    public void stop() {
+        pause();
+        synchronized (lock) {
+            Frame discarded;
+            synchronized (this) {
+                discarded = pending;
+                pending = null;
+            }
+            if (discarded != null) cpu.memory.markDirty(discarded.dirtyLow, discarded.dirtyHigh);
+        }
+    }
+
+    // Exécute une seule instruction (ignoré pendant l'exécution continue)
+    public void step() {
+        if (running) return;
+        synchronized (lock) {
+            if (cpu.state.halted) return;
+            cpu.breakpoints.resume(cpu.state.pc); // Le pas à pas exécute toujours l'instruction
+            String error = execute(1);
+            cpu.breakpoints.takeHit();
+            publish(error);
+        }
+    }
+
+    // Annule la dernière instruction (ignoré pendant l'exécution continue), faux si l'historique est vide
+    public boolean stepBack() {
+        if (running) return false;
+        synchronized (lock) {
+            if (!cpu.stepBack()) return false;
+            publish(null);
+            return true;
+        }
+    }
+
+    // Retour arrière jusqu'à ce que stop soit vrai pour PC (null : jusqu'au début de l'historique),
+    // retourne le nombre d'instructions annulées
+    public long reverseContinue(IntPredicate stop) {
+        if (running || cpu.getJournal() == null) return 0;
+        synchronized (lock) {
+            long count = cpu.getJournal().reverseContinue(cpu, stop, Long.MAX_VALUE);
+            if (count > 0) publish(null);
+            return count;
+        }
+    }
+
+    // Boucle du thread d'exécution
+    private void loop() {
+        while (true) {
+            long delay = 0;
+            synchronized (lock) {
+                while (!running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                Speed current = speed;
+                if (resync) {
+                    resync = false;
+                    anchor();
+                }
+                boolean animated = current.mode == Mode.ANIMATED;
+                String error = execute(animated ? 1 : BATCH_SIZE);
+                String hit = cpu.breakpoints.takeHit();
+                if (error != null || cpu.state.halted) {
+                    running = false;
+                    publish(error);
+                } else if (hit != null) { // Point d'arrêt : l'exécution se suspend
+                    running = false;
+                    publish(null, hit);
+                } else if (!running) {
+                    publish(null); // Pause demandée : dernier état affiché
+                } else {
+                    // En mode animé, chaque instruction est affichée
+                    if (animated || System.nanoTime() - lastPublish >= REFRESH_NANOS) publish(null);
+                    delay = delay(current);
+                }
+            }
+            if (delay > 0) LockSupport.parkNanos(delay); // Hors du verrou : pause et pas à pas restent possibles
+        }
+    }
+
+    // Nouvelle référence de cadence : l'état courant correspond à l'instant présent
+    private void anchor() {
+        anchorNanos = System.nanoTime();
+        anchorCycles = cpu.state.cycles;
+        anchorInstructions = instructions;
+    }
+
+    // Avance de l'exécution émulée sur le temps réel (0 si elle n'est pas assez en avance pour attendre)
+    private long delay(Speed current) {
+        if (current.mode == Mode.TURBO) return 0;
+        double units = current.mode == Mode.REAL_TIME ? cpu.state.cycles - anchorCycles : instructions - anchorInstructions;
+        long emulated = (long) (units * 1e9 / current.rate);
+        long ahead = emulated - (System.nanoTime() - anchorNanos);
+        if (ahead < -MAX_LAG_NANOS) { // Exécution trop lente (machine chargée) : pas de rattrapage en rafale
+            anchor();
+            return 0;
+        }
+        return ahead >= MIN_PARK_NANOS ? ahead : 0;
+    }
+
+    // Exécute au plus count instructions, retourne le message d'erreur éventuel
+    // (toute exception arrête le CPU : le thread d'exécution ne doit jamais mourir avec running à vrai)
+    private String execute(int count) {
+        try {
+            instructions += cpu.run(count);
+            return null;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            cpu.state.halted = true;
+            return e.getMessage();
+        } catch (RuntimeException e) { // Erreur inattendue (gestionnaire, journal, trace, profil)
+            cpu.state.halted = true;
+            return "Erreur interne : " + e;
+        }
+    }
+
+    // Envoie une copie de l'état du CPU à l'interface graphique
+    private void publish(String error) {
+        publish(error, null);
+    }
+
+    private void publish(String error, String breakpoint) {
+        lastPublish = System.nanoTime();
+        Memory memory = cpu.memory;
+        Frame frame = new Frame(cpu.state.copy(), cpu.lastAddress,
+                memory.getDirtyLow(), memory.getDirtyHigh(), error);
+        frame.breakpoint = breakpoint;
+        memory.clearDirty();
+
+        boolean schedule;
+        synchronized (this) {
+            schedule = pending == null;
+            if (pending != null) frame.merge(pending);
+            pending = frame;
+        }
+        if (schedule) SwingUtilities.invokeLater(this::deliver);
+    }
+
+    // Affiche la dernière image en attente (sur l'EDT)
+    private void deliver() {
+        Frame frame;
+        synchronized (this) {
+            frame = pending;
+            pending = null;
+        }
+        if (frame == null) return; // Image retirée par stop
+        if (frame.isFinished()) listener.executionFinished(frame);
+        else if (frame.breakpoint != null) listener.breakpointHit(frame);
+        else listener.stateChanged(frame);
+    }
+}
@@ -3,16 +3,12 @@ package cpu;
 import java.util.Map;
 import java.util.HashMap;
 
-public class Instruction {
-    public String opcode;          // Nom de l'instruction (ex: LDA, ADD)
-    public String operand;         // Opérande de l'instruction (ex: #12, $2000, A,B)
-    public String modeAdr;         // Mode d'adressage (non utilisé directement ici)
-    public static String erreurMessag; // Message d'erreur global pour validation
+// Classe Instruction
+// Table des instructions reconnues par l'assembleur : code hex de chaque instruction
+// pour chacun de ses modes d'adressage, et codes des registres pour TFR/EXG.
+public final class Instruction {
 
-    // Constructeur
-    public Instruction(String opcode, String operand) {
-        this.opcode = opcode;
-        this.operand = operand;
+    private Instruction() {
     }
 
     // Convertit un registre en code hexadécimal pour le post-byte
@@ -32,12 +28,6 @@ public class Instruction {
         }
     }
 
-    // Obtenir le post-byte pour les instructions TFR/EXG (ex: A,B → 89)
-    public String getRegisterPostByte() {
-        String[] regs = operand.replace(" ", "").split(",");
-        return getRegisterCode(regs[0]) + getRegisterCode(regs[1]);
-    }
-
     // Enum des modes d'adressage
     public enum AddressingMode {
         inherent,     // Instruction sans opérande (ex: NOP)
@@ -49,17 +39,6 @@ public class Instruction {
         registerOnly  // Instructions TFR/EXG
     }
 
-    // Détecte le mode d'adressage d'une instruction
-    public AddressingMode detectMode() {
-        if (opcode.equalsIgnoreCase("TFR") || opcode.equalsIgnoreCase("EXG")) return AddressingMode.registerOnly;
-        if (operand == null || operand.isBlank()) return AddressingMode.inherent;
-        String op = operand.toUpperCase().replace(" ", "");
-        if (op.startsWith("#")) return AddressingMode.immediat;
-        if (op.contains(",")) return AddressingMode.indexe;
-        if (op.startsWith("$")) return (op.length() <= 3) ? AddressingMode.direct : AddressingMode.etendu;
-        return AddressingMode.relative;
-    }
-
     // Table des opcodes avec code hex pour chaque mode
     private static final Map<String, Map<AddressingMode, String>> OPCODES = new HashMap<>();
 
@@ -77,8 +56,8 @@ public class Instruction {
         OPCODES.put("STB", Map.of(AddressingMode.direct, "D7", AddressingMode.etendu, "F7", AddressingMode.indexe, "E7"));
         OPCODES.put("STX", Map.of(AddressingMode.direct, "9F", AddressingMode.etendu, "BF", AddressingMode.indexe, "AF"));
         OPCODES.put("STY", Map.of(AddressingMode.direct, "109F", AddressingMode.etendu, "10BF", AddressingMode.indexe, "10AF"));
-        OPCODES.put("STU", Map.of(AddressingMode.direct, "??", AddressingMode.etendu, "??", AddressingMode.indexe, "??"));
-        OPCODES.put("STS", Map.of(AddressingMode.direct, "??", AddressingMode.etendu, "??", AddressingMode.indexe, "??"));
+        OPCODES.put("STU", Map.of(AddressingMode.direct, "DF", AddressingMode.etendu, "FF", AddressingMode.indexe, "EF"));
+        OPCODES.put("STS", Map.of(AddressingMode.direct, "10DF", AddressingMode.etendu, "10FF", AddressingMode.indexe, "10EF"));
 
         // Instructions arithmétiques
         OPCODES.put("ADDA", Map.of(AddressingMode.immediat, "8B", AddressingMode.direct, "9B", AddressingMode.etendu, "BB", AddressingMode.indexe, "AB"));
@@ -128,62 +107,32 @@ public class Instruction {
         OPCODES.put("BCS", Map.of(AddressingMode.relative, "25"));
         OPCODES.put("BMI", Map.of(AddressingMode.relative, "2B"));
         OPCODES.put("BPL", Map.of(AddressingMode.relative, "2A"));
-        OPCODES.put("BVC", Map.of(AddressingMode.relative, "49"));
-        OPCODES.put("BVS", Map.of(AddressingMode.relative, "59"));
+        OPCODES.put("BVC", Map.of(AddressingMode.relative, "28"));
+        OPCODES.put("BVS", Map.of(AddressingMode.relative, "29"));
+        OPCODES.put("LBRA", Map.of(AddressingMode.relative, "16"));  // Branchements longs (offset sur 16 bits)
+        OPCODES.put("LBEQ", Map.of(AddressingMode.relative, "1027"));
+        OPCODES.put("LBNE", Map.of(AddressingMode.relative, "1026"));
+        OPCODES.put("LBCC", Map.of(AddressingMode.relative, "1024"));
+        OPCODES.put("LBCS", Map.of(AddressingMode.relative, "1025"));
+        OPCODES.put("LBMI", Map.of(AddressingMode.relative, "102B"));
+        OPCODES.put("LBPL", Map.of(AddressingMode.relative, "102A"));
+        OPCODES.put("LBVC", Map.of(AddressingMode.relative, "1028"));
+        OPCODES.put("LBVS", Map.of(AddressingMode.relative, "1029"));
         OPCODES.put("TFR", Map.of(AddressingMode.registerOnly, "1F"));
         OPCODES.put("EXG", Map.of(AddressingMode.registerOnly, "1E"));
         OPCODES.put("END", Map.of(AddressingMode.inherent, "3F"));
         OPCODES.put("SWI", Map.of(AddressingMode.inherent, "3F"));
-        OPCODES.put("JMP", Map.of(AddressingMode.etendu, "7E", AddressingMode.indexe, "6E", AddressingMode.relative, "20"));
-    }
-
-    // Retourne le code hex pour l'instruction actuelle selon le mode détecté
-    public String getOpcodeHex() {
-        AddressingMode mode = detectMode();
-        Map<AddressingMode, String> modes = OPCODES.get(opcode);
-        if (modes == null || !modes.containsKey(mode)) throw new IllegalArgumentException("Opcode non supporté : " + opcode + " / " + mode);
-        return modes.get(mode);
+        OPCODES.put("JMP", Map.of(AddressingMode.etendu, "7E", AddressingMode.indexe, "6E", AddressingMode.relative, "7E")); // JMP label : adresse absolue
     }
 
-    // Calcule l'adresse mémoire pour un offset donné
-    public static String getAddress(int k) {
-        return Integer.toHexString(0xFE00 + k).toUpperCase();
+    // Vrai si le mnémonique est une instruction connue
+    public static boolean isSupported(String mnemonic) {
+        return OPCODES.containsKey(mnemonic);
     }
 
-    // Nettoie l'opérande (#, $, [, & etc.)
-    public static String filterOperand(String operand) {
-        return operand.replaceAll("[#$\\[&]", "");
-    }
-
-    // Vérifie la syntaxe de l'instruction
-    public static boolean isSyntaxCorrect(Instruction instr, Map<String, Integer> labelsMap) {
-        if (instr == null) { erreurMessag = "Erreur : instruction nulle"; return false; }
-        if (instr.opcode == null || instr.opcode.isBlank()) { erreurMessag = "Erreur : opcode manquant"; return false; }
-        instr.opcode = instr.opcode.toUpperCase();
-        if (!OPCODES.containsKey(instr.opcode)) { erreurMessag = "Erreur : opcode non supporté : " + instr.opcode; return false; }
-        AddressingMode mode;
-        try { mode = instr.detectMode(); } catch (Exception e) { erreurMessag = "Erreur : mode d'adressage invalide"; return false; }
-        Map<AddressingMode, String> modes = OPCODES.get(instr.opcode);
-        if (!modes.containsKey(mode)) { erreurMessag = "Erreur : mode " + mode + " non valide pour " + instr.opcode; return false; }
-
-        if (mode != AddressingMode.inherent) {
-            if (instr.operand == null || instr.operand.isBlank()) { erreurMessag = "Erreur : opérande manquant pour " + instr.opcode; return false; }
-            if (mode == AddressingMode.immediat && !instr.operand.startsWith("#")) { erreurMessag = "Erreur : opérande immédiat attendu (#)"; return false; }
-            if (mode == AddressingMode.indexe && !instr.operand.contains(",")) { erreurMessag = "Erreur : opérande indexé invalide"; return false; }
-            if (mode == AddressingMode.registerOnly && !instr.operand.matches("[A-Z],[A-Z]")) { erreurMessag = "Erreur : syntaxe EXG/TFR invalide"; return false; }
-            if (mode == AddressingMode.relative && labelsMap != null && !labelsMap.containsKey(instr.operand)) { erreurMessag = "Erreur : label introuvable pour " + instr.opcode; return false; }
-        }
-
-        try {
-            if (instr.operand != null &&
-                mode != AddressingMode.relative &&
-                mode != AddressingMode.indexe &&
-                mode != AddressingMode.registerOnly &&
-                mode != AddressingMode.inherent &&
-                mode != AddressingMode.etendu) {
-                Integer.parseInt(filterOperand(instr.operand), 16);
-            }
-        } catch (NumberFormatException e) { erreurMessag = "Erreur : opérande non hexadécimal : " + instr.operand; return false; }
-        return true;
+    // Code hex d'une instruction dans un mode d'adressage (null si ce mode n'existe pas pour elle)
+    public static String opcodeHex(String mnemonic, AddressingMode mode) {
+        Map<AddressingMode, String> modes = OPCODES.get(mnemonic);
+        return modes == null ? null : modes.get(mode);
     }
 }
@@ -0,0 +1,635 @@
+package cpu;
+
+import static cpu.CpuState.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Classe Jit
+// Second niveau d'exécution : les blocs de base souvent exécutés (compteur par adresse d'entrée)
+// sont compilés en une suite d'opérations déjà décodées (fermetures) : plus de lecture d'opcode,
+// de table de dispatch ni de décodage du mode d'adressage, les opérandes constants sont résolus.
+// Un bloc est revérifié octet par octet dès que la mémoire du code a pu changer (code auto-modifiant,
+// rechargement de la ROM) et l'exécution revient à l'interpréteur d'octets si le code a été modifié.
+public class Jit {
+
+    public static final int THRESHOLD = 256; // Entrées dans un bloc avant sa compilation
+    public static final int MAX_BLOCK = 64;  // Nombre maximal d'instructions par bloc
+
+    // Opcodes qui terminent un bloc de base (branchements, sauts, RTS, SWI/END, TFR/EXG)
+    private static final boolean[] ENDS_BLOCK = new boolean[256];
+
+    static {
+        for (int opcode = 0x20; opcode <= 0x2F; opcode++) ENDS_BLOCK[opcode] = true;
+        for (int opcode : new int[] { 0x16, 0x1E, 0x1F, 0x39, 0x3F, 0x6E, 0x7E }) ENDS_BLOCK[opcode] = true;
+    }
+
+    // Instruction compilée
+    interface Op {
+        void run(CPU cpu);
+    }
+
+    // Adresse effective calculée à l'exécution (registre d'index, page directe)
+    interface Address {
+        int of(CPU cpu);
+    }
+
+    // Opérations sur un registre et une valeur 8 bits
+    private static final int LD = 0, ADD = 1, SUB = 2, CMP = 3, AND = 4, OR = 5, EOR = 6;
+
+    // Bloc de base compilé
+    static final class Block {
+        final int start;          // Adresse d'entrée
+        final int length;         // Nombre d'instructions
+        final Op[] segments;      // Instructions fusionnées, coupées après chaque écriture en mémoire
+        final int[] segmentEnds;  // Index de la dernière instruction de chaque segment
+        final int[] addresses;    // Adresse de chaque instruction
+        final int[] next;         // Adresse qui suit chaque instruction
+        final int[] firstBytes;   // Premier octet de chaque instruction (registre RI)
+        final int[] cycles;       // Cycles cumulés du début du bloc jusqu'à chaque instruction comprise
+        final int[] bytes;        // Octets du bloc lors de la compilation
+        final boolean jumps;      // La dernière instruction positionne elle-même PC
+        int version;              // Version du code de la mémoire lors de la dernière vérification
+        int[] fusions;            // Statistiques : superinstructions du bloc, par type
+        int[] missedPairs;        // Statistiques : paires d'opcodes adjacentes non fusionnées
+        long executions;          // Statistiques : nombre d'entrées dans le bloc compilé
+
+        Block(int start, Op[] segments, int[] segmentEnds, int[] addresses, int[] next, int[] firstBytes,
+              int[] cycles, int[] bytes, boolean jumps, int version) {
+            this.start = start;
+            this.length = addresses.length;
+            this.segments = segments;
+            this.segmentEnds = segmentEnds;
+            this.addresses = addresses;
+            this.next = next;
+            this.firstBytes = firstBytes;
+            this.cycles = cycles;
+            this.bytes = bytes;
+            this.jumps = jumps;
+            this.version = version;
+        }
+
+        // Exécute le bloc, retourne le nombre d'instructions exécutées
+        int execute(CPU cpu) {
+            Memory memory = cpu.memory;
+            Op[] segments = this.segments;
+            executions++;
+            for (int i = 0; i < segments.length; i++) {
+                segments[i].run(cpu);
+                // Écriture dans du code compilé : la suite du bloc est peut-être obsolète
+                if (memory.getCodeVersion() != version) return finish(cpu, segmentEnds[i]);
+            }
+            return finish(cpu, length - 1);
+        }
+
+        // Registres et cycles mis à jour une seule fois, comme après la dernière instruction exécutée
+        private int finish(CPU cpu, int last) {
+            cpu.lastAddress = addresses[last];
+            cpu.state.ri = firstBytes[last];
+            cpu.state.cycles += cycles[last];
+            if (last < length - 1 || !jumps) cpu.state.pc = next[last];
+            return last + 1;
+        }
+    }
+
+    // Code de la classe OpPair, recopiée en classe cachée pour chaque forme de paire d'instructions :
+    // classe de la première opération -> classe de la seconde -> constructeur de la copie
+    private static final byte[] PAIR_CLASS = readPairClass();
+    public static final int MAX_PAIR_CLASSES = 4096;
+    private static final AtomicInteger pairClasses = new AtomicInteger();
+    private static final ClassValue<ConcurrentHashMap<Class<?>, MethodHandle>> PAIR_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentHashMap<Class<?>, MethodHandle> computeValue(Class<?> first) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final CPU cpu;
+    private final int[] counters = new int[Memory.SIZE];    // Entrées par adresse de début de bloc
+    private final Block[] blocks = new Block[Memory.SIZE];  // Blocs compilés par adresse d'entrée
+    public int compiledBlocks;     // Statistiques : blocs compilés
+    public int invalidatedBlocks;  // Statistiques : blocs abandonnés après modification du code
+    private final ArrayList<Block> history = new ArrayList<>(); // Statistiques : tous les blocs compilés
+
+    // État de la compilation en cours
+    private int at;             // Adresse de l'octet suivant à décoder
+    private boolean endsBlock;  // La dernière instruction compilée termine le bloc
+    private boolean jumps;      // La dernière instruction compilée positionne elle-même PC
+    private boolean writes;     // La dernière instruction compilée écrit en mémoire
+    private Superinstructions.Shape shape; // Forme de la dernière instruction compilée (fusion)
+
+    public Jit(CPU cpu) {
+        this.cpu = cpu;
+    }
+
+    // Oublie tous les blocs compilés et les compteurs
+    public void reset() {
+        Arrays.fill(counters, 0);
+        Arrays.fill(blocks, null);
+        history.clear();
+    }
+
+    // Exécute jusqu'à l'arrêt du programme ou jusqu'à maxInstructions (jamais au-delà)
+    public long run(long maxInstructions) {
+        CpuState state = cpu.state;
+        Memory memory = cpu.memory;
+        long count = 0;
+        boolean head = true; // PC est le début d'un bloc de base
+
+        while (!state.halted && count < maxInstructions) {
+            int pc = state.pc;
+            if (head) {
+                Block block = blocks[pc];
+                if (block == null && ++counters[pc] == THRESHOLD) block = compile(pc);
+                if (block != null && block.version != memory.getCodeVersion() && !revalidate(block)) block = null;
+                if (block != null && count + block.length <= maxInstructions) {
+                    count += block.execute(cpu);
+                    continue;
+                }
+            }
+            int opcode = memory.read8(pc);
+            cpu.step();
+            count++;
+            head = ENDS_BLOCK[opcode] || (opcode == 0x10 && (memory.read8(pc + 1) & 0xF0) == 0x20); // LBcc (page 10)
+        }
+        return count;
+    }
+
+    // Le code a pu changer : le bloc reste utilisable si ses octets sont identiques
+    private boolean revalidate(Block block) {
+        Memory memory = cpu.memory;
+        for (int i = 0; i < block.bytes.length; i++) {
+            if (memory.read8(block.start + i) != block.bytes[i]) {
+                blocks[block.start] = null;
+                counters[block.start] = 0;
+                invalidatedBlocks++;
+                return false;
+            }
+        }
+        block.version = memory.getCodeVersion();
+        return true;
+    }
+
+    // Compile le bloc de base qui commence à start (null si la première instruction n'est pas compilable)
+    private Block compile(int start) {
+        Memory memory = cpu.memory;
+        Op[] ops = new Op[MAX_BLOCK];
+        boolean[] stores = new boolean[MAX_BLOCK];
+        int[] addresses = new int[MAX_BLOCK];
+        int[] next = new int[MAX_BLOCK];
+        int[] firstBytes = new int[MAX_BLOCK];
+        int[] cycles = new int[MAX_BLOCK];
+        Superinstructions.Shape[] shapes = new Superinstructions.Shape[MAX_BLOCK];
+        int count = 0;
+        boolean blockJumps = false;
+
+        at = start;
+        while (count < MAX_BLOCK && at < Memory.SIZE) {
+            int address = at;
+            endsBlock = jumps = writes = false;
+            shape = new Superinstructions.Shape();
+            shape.opcode = memory.read8(address);
+            Op op = compileInstruction();
+            if (op == null || at > Memory.SIZE) break; // Instruction non compilable : l'interpréteur s'en charge
+            ops[count] = op;
+            stores[count] = writes;
+            shapes[count] = shape;
+            addresses[count] = address;
+            next[count] = at & 0xFFFF;
+            firstBytes[count] = memory.read8(address);
+            cycles[count] = (count > 0 ? cycles[count - 1] : 0) + Cycles.of(memory, address);
+            count++;
+            if (endsBlock) {
+                blockJumps = jumps;
+                break;
+            }
+        }
+        if (count == 0) return null;
+
+        // Superinstructions, puis segments : suites d'opérations fusionnées en classes cachées,
+        // la version du code est vérifiée après chaque écriture en mémoire
+        Superinstructions fused = new Superinstructions(ops, shapes, count);
+        Op[] segments = new Op[fused.count];
+        int[] segmentEnds = new int[fused.count];
+        int segmentCount = 0;
+        for (int first = 0; first < fused.count; ) {
+            int last = first;
+            while (!stores[fused.lastInstruction[last]] && last < fused.count - 1) last++;
+            segments[segmentCount] = fuse(fused.ops, first, last);
+            segmentEnds[segmentCount++] = fused.lastInstruction[last];
+            first = last + 1;
+        }
+
+        int end = next[count - 1] == 0 ? Memory.SIZE : next[count - 1];
+        int[] bytes = new int[end - start];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = memory.read8(start + i);
+        memory.markCode(start, end);
+
+        Block block = new Block(start, Arrays.copyOf(segments, segmentCount), Arrays.copyOf(segmentEnds, segmentCount),
+                Arrays.copyOf(addresses, count), Arrays.copyOf(next, count), Arrays.copyOf(firstBytes, count),
+                Arrays.copyOf(cycles, count), bytes, blockJumps, memory.getCodeVersion());
+        block.fusions = fused.fusions;
+        block.missedPairs = Arrays.copyOf(fused.missedPairs, fused.missedCount);
+        blocks[start] = block;
+        history.add(block);
+        compiledBlocks++;
+        return block;
+    }
+
+    // Fusionne les instructions first..last en une seule opération (paires imbriquées)
+    private static Op fuse(Op[] ops, int first, int last) {
+        Op op = ops[last];
+        for (int i = last - 1; i >= first; i--) op = pair(ops[i], op);
+        return op;
+    }
+
+    // Paire d'opérations dans une copie de OpPair propre à la forme de la paire (classes exactes des
+    // deux opérations) : les deux appels restent monomorphes et HotSpot peut les intégrer. Une seule
+    // classe cachée par forme, partagée par tous les blocs et tous les CPU ; au-delà de MAX_PAIR_CLASSES
+    // formes, la classe OpPair commune (appels polymorphes, plus lente mais correcte) est utilisée.
+    static Op pair(Op first, Op second) {
+        MethodHandle constructor = PAIR_CONSTRUCTORS.get(first.getClass())
+                .computeIfAbsent(second.getClass(), shape -> definePairClass());
+        if (constructor != null) {
+            try {
+                return (Op) constructor.invoke(first, second);
+            } catch (Throwable e) {
+                // Impossible : le constructeur de OpPair ne lève pas d'exception
+            }
+        }
+        return new OpPair(first, second);
+    }
+
+    // Nouvelle copie de OpPair (null si la limite est atteinte ou si la classe cachée est refusée)
+    private static MethodHandle definePairClass() {
+        if (PAIR_CLASS == null || pairClasses.get() >= MAX_PAIR_CLASSES) return null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(PAIR_CLASS, true);
+            pairClasses.incrementAndGet();
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Op.class, Op.class));
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] readPairClass() {
+        try (InputStream in = Jit.class.getResourceAsStream("OpPair.class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private int read8() {
+        return cpu.memory.read8(at++);
+    }
+
+    private int read16() {
+        int value = cpu.memory.read16(at);
+        at += 2;
+        return value;
+    }
+
+    // Compile l'instruction à l'adresse at (null si elle n'est pas supportée)
+    private Op compileInstruction() {
+        int opcode = read8();
+        if (opcode == 0x10) return compilePage10(read8());
+        if (opcode == 0x11) return null; // Aucune instruction de la page 11 n'est supportée
+
+        if (opcode >= 0x80) {
+            int reg = (opcode & 0x40) == 0 ? REG_A : REG_B;
+            int mode = opcode & 0x30;
+            switch (opcode & 0x0F) {
+                case 0x0: return read8(SUB, reg, mode);
+                case 0x1: return read8(CMP, reg, mode);
+                case 0x4: return read8(AND, reg, mode);
+                case 0x6: return read8(LD, reg, mode);
+                case 0x7: return store(reg, mode);
+                case 0x8: return read8(EOR, reg, mode);
+                case 0xA: return read8(OR, reg, mode);
+                case 0xB: return read8(ADD, reg, mode);
+                case 0xE: return load16(reg == REG_A ? REG_X : REG_U, mode);
+                case 0xF: return store(reg == REG_A ? REG_X : REG_U, mode);
+                default: return null;
+            }
+        }
+
+        if ((opcode & 0xE0) == 0x40) { // Instructions inhérentes sur A (4x) et B (5x)
+            int reg = (opcode & 0x10) == 0 ? REG_A : REG_B;
+            switch (opcode & 0x0F) {
+                case 0x0: return c -> c.neg(reg);
+                case 0x3: return c -> c.com(reg);
+                case 0x4: return c -> c.lsr(reg);
+                case 0x6: return c -> c.ror(reg);
+                case 0x8: return c -> c.lsl(reg);
+                case 0x9: return c -> c.rol(reg);
+                case 0xA:
+                    incDecShape(reg, -1);
+                    return c -> c.dec(reg);
+                case 0xC:
+                    incDecShape(reg, 1);
+                    return c -> c.inc(reg);
+                case 0xF: return c -> c.clr(reg);
+                default: return null;
+            }
+        }
+
+        if ((opcode & 0xF0) == 0x20) return branch(opcode, (byte) read8());
+
+        switch (opcode) {
+            case 0x12: return c -> { };   // NOP
+            case 0x16: return branch(0x20, (short) read16()); // LBRA
+            case 0x1E: return transfer(read8(), true);
+            case 0x1F: return transfer(read8(), false);
+            case 0x39: {                  // RTS
+                int next = at;
+                endsBlock = jumps = true;
+                return c -> {
+                    c.state.pc = next;
+                    if (c.callStack.isEmpty()) c.state.halted = true;
+                    else ByteInterpreter.jump(c, c.callStack.pop());
+                };
+            }
+            case 0x3F: {                  // SWI / END
+                endsBlock = true;
+                return c -> c.state.halted = true;
+            }
+            case 0x7E: {                  // JMP étendu
+                int target = read16();
+                endsBlock = jumps = true;
+                return c -> ByteInterpreter.jump(c, target);
+            }
+            case 0x6E: {                  // JMP indexé
+                Address ea = indexed();
+                if (ea == null) return null;
+                endsBlock = jumps = true;
+                return c -> ByteInterpreter.jump(c, ea.of(c));
+            }
+            default: return null;
+        }
+    }
+
+    // LDY, LDS, STY, STS, LBcc
+    private Op compilePage10(int opcode) {
+        if (opcode >= 0x24 && opcode <= 0x2B) return longBranch(opcode, (short) read16());
+        int mode = opcode & 0x30;
+        switch (opcode & 0xCF) {
+            case 0x8E: return load16(REG_Y, mode);
+            case 0xCE: return load16(REG_S, mode);
+            case 0x8F: return mode == 0 ? null : store(REG_Y, mode);
+            case 0xCF: return mode == 0 ? null : store(REG_S, mode);
+            default: return null;
+        }
+    }
+
+    // Opération sur une valeur 8 bits : immédiate, à une adresse constante (étendu) ou calculée.
+    // Une fermeture distincte par opération et par forme : chaque site d'appel reste monomorphe.
+    private Op read8(int kind, int reg, int mode) {
+        if (kind == LD) {
+            shape.kind = Superinstructions.LOAD8;
+            shape.reg = reg;
+        }
+        if (mode == 0) {
+            int value = read8();
+            if (kind == CMP) {
+                shape.kind = Superinstructions.CMP_IMMEDIATE;
+                shape.reg = reg;
+                shape.value = value;
+            }
+            switch (kind) {
+                case ADD: return c -> c.add(reg, value);
+                case SUB: return c -> c.sub(reg, value);
+                case CMP: return c -> c.cmp(reg, value);
+                case AND: return c -> c.and(reg, value);
+                case OR:  return c -> c.or(reg, value);
+                case EOR: return c -> c.eor(reg, value);
+                default:  return c -> c.ld(reg, value);
+            }
+        }
+        if (mode == 0x30) {
+            int address = read16();
+            switch (kind) {
+                case ADD: return c -> c.add(reg, c.memory.read8(address));
+                case SUB: return c -> c.sub(reg, c.memory.read8(address));
+                case CMP: return c -> c.cmp(reg, c.memory.read8(address));
+                case AND: return c -> c.and(reg, c.memory.read8(address));
+                case OR:  return c -> c.or(reg, c.memory.read8(address));
+                case EOR: return c -> c.eor(reg, c.memory.read8(address));
+                default:  return c -> c.ld(reg, c.memory.read8(address));
+            }
+        }
+        Address ea = address(mode);
+        if (ea == null) return null;
+        switch (kind) {
+            case ADD: return c -> c.add(reg, c.memory.read8(ea.of(c)));
+            case SUB: return c -> c.sub(reg, c.memory.read8(ea.of(c)));
+            case CMP: return c -> c.cmp(reg, c.memory.read8(ea.of(c)));
+            case AND: return c -> c.and(reg, c.memory.read8(ea.of(c)));
+            case OR:  return c -> c.or(reg, c.memory.read8(ea.of(c)));
+            case EOR: return c -> c.eor(reg, c.memory.read8(ea.of(c)));
+            default:  return c -> c.ld(reg, c.memory.read8(ea.of(c)));
+        }
+    }
+
+    private Op load16(int reg, int mode) {
+        if (mode == 0) {
+            int value = read16();
+            return c -> c.ld(reg, value);
+        }
+        Address ea = address(mode);
+        if (ea == null) return null;
+        return c -> c.ld(reg, c.memory.read16(ea.of(c)));
+    }
+
+    private Op store(int reg, int mode) {
+        if (mode == 0) return null; // Pas de stockage immédiat
+        writes = true;
+        if (!CpuState.isWide(reg)) {
+            shape.kind = Superinstructions.STORE8;
+            shape.reg = reg;
+        }
+        if (mode == 0x30) {
+            int address = read16();
+            return c -> c.st(reg, address);
+        }
+        Address ea = address(mode);
+        if (ea == null) return null;
+        return c -> c.st(reg, ea.of(c));
+    }
+
+    private void incDecShape(int reg, int delta) {
+        shape.kind = Superinstructions.INC_DEC;
+        shape.reg = reg;
+        shape.value = delta;
+    }
+
+    // TFR / EXG : si PC est concerné, il doit être à jour avant le transfert et le bloc se termine
+    private Op transfer(int postByte, boolean exchange) {
+        if ((postByte >> 4) != REG_PC && (postByte & 0x0F) != REG_PC) {
+            return exchange ? c -> c.exg(postByte) : c -> c.tfr(postByte);
+        }
+        int next = at;
+        endsBlock = jumps = true;
+        return exchange ? c -> { c.state.pc = next; c.exg(postByte); }
+                        : c -> { c.state.pc = next; c.tfr(postByte); };
+    }
+
+    // Branchement relatif (court ou long) : la cible et l'adresse suivante sont des constantes
+    private Op branch(int opcode, int offset) {
+        int next = at;
+        int target = (next + offset) & 0xFFFF;
+        endsBlock = jumps = true;
+        if (opcode == 0x26 || opcode == 0x27) { // BNE / BEQ
+            shape.kind = Superinstructions.BRANCH_Z;
+            shape.branchOpcode = opcode;
+            shape.target = target;
+            shape.next = next;
+        }
+        switch (opcode) {
+            case 0x20: return c -> ByteInterpreter.jump(c, target);
+            case 0x24: return c -> { if (!c.state.flag(CC_C)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x25: return c -> { if (c.state.flag(CC_C)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x26: return c -> { if (!c.state.flag(CC_Z)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x27: return c -> { if (c.state.flag(CC_Z)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x28: return c -> { if (!c.state.flag(CC_V)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x29: return c -> { if (c.state.flag(CC_V)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x2A: return c -> { if (!c.state.flag(CC_N)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            case 0x2B: return c -> { if (c.state.flag(CC_N)) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            default: return null;
+        }
+    }
+
+    // LBcc : un cycle de plus si le branchement est pris, ajouté ici car Block.finish ne compte que
+    // la durée fixe. Pas de forme BRANCH_Z : les superinstructions ne fusionnent que les branchements courts.
+    private Op longBranch(int opcode, int offset) {
+        int next = at;
+        int target = (next + offset) & 0xFFFF;
+        endsBlock = jumps = true;
+        int flag = opcode <= 0x25 ? CC_C : opcode <= 0x27 ? CC_Z : opcode <= 0x29 ? CC_V : CC_N;
+        boolean ifSet = (opcode & 1) != 0; // LBCS, LBEQ, LBVS, LBMI
+        return c -> {
+            if (c.state.flag(flag) == ifSet) {
+                c.state.cycles++;
+                ByteInterpreter.jump(c, target);
+            } else c.state.pc = next;
+        };
+    }
+
+    // Adresse effective : direct (DP lu à l'exécution), indexé ou étendu (constante)
+    private Address address(int mode) {
+        switch (mode) {
+            case 0x10: {
+                int low = read8();
+                return c -> (c.state.dp << 8) | low;
+            }
+            case 0x20: return indexed();
+            default: {
+                int address = read16();
+                return c -> address;
+            }
+        }
+    }
+
+    // Mode indexé n,R sans indirection ni effet de bord (candidat à la fusion)
+    private void simpleIndexed(int reg, int offset) {
+        shape.indexReg = reg;
+        shape.indexOffset = offset;
+    }
+
+    // Post-byte indexé décodé une seule fois (mêmes modes que ByteInterpreter.indexed)
+    private Address indexed() {
+        int postByte = read8();
+        int reg = REG_X + ((postByte >> 5) & 0x3);
+        if ((postByte & 0x80) == 0) {
+            int offset = (postByte << 27) >> 27;
+            simpleIndexed(reg, offset);
+            return c -> (c.state.get(reg) + offset) & 0xFFFF;
+        }
+
+        Address ea;
+        switch (postByte & 0x0F) {
+            case 0x0: ea = c -> { int a = c.state.get(reg); c.state.set(reg, a + 1); return a; }; break;
+            case 0x1: ea = c -> { int a = c.state.get(reg); c.state.set(reg, a + 2); return a; }; break;
+            case 0x2: ea = c -> { int a = (c.state.get(reg) - 1) & 0xFFFF; c.state.set(reg, a); return a; }; break;
+            case 0x3: ea = c -> { int a = (c.state.get(reg) - 2) & 0xFFFF; c.state.set(reg, a); return a; }; break;
+            case 0x4:
+                if ((postByte & 0x10) == 0) simpleIndexed(reg, 0);
+                ea = c -> c.state.get(reg);
+                break;
+            case 0x5: ea = c -> (c.state.get(reg) + (byte) c.state.b) & 0xFFFF; break;
+            case 0x6: ea = c -> (c.state.get(reg) + (byte) c.state.a) & 0xFFFF; break;
+            case 0x8: {
+                int offset = (byte) read8();
+                if ((postByte & 0x10) == 0) simpleIndexed(reg, offset);
+                ea = c -> (c.state.get(reg) + offset) & 0xFFFF;
+                break;
+            }
+            case 0x9: {
+                int offset = (short) read16();
+                if ((postByte & 0x10) == 0) simpleIndexed(reg, offset);
+                ea = c -> (c.state.get(reg) + offset) & 0xFFFF;
+                break;
+            }
+            case 0xB: ea = c -> (c.state.get(reg) + (short) c.state.getD()) & 0xFFFF; break;
+            case 0xC: {
+                int offset = (byte) read8();
+                int address = (at + offset) & 0xFFFF; // Relatif au PC : constante
+                ea = c -> address;
+                break;
+            }
+            case 0xD: {
+                int offset = (short) read16();
+                int address = (at + offset) & 0xFFFF;
+                ea = c -> address;
+                break;
+            }
+            case 0xF: {
+                if (postByte != 0x9F) return null;
+                int address = read16();
+                ea = c -> address;
+                break;
+            }
+            default: return null;
+        }
+        if ((postByte & 0x10) == 0) return ea;
+        Address pointer = ea;
+        return c -> c.memory.read16(pointer.of(c)); // Mode indirect [ ]
+    }
+
+    // Statistiques de compilation : superinstructions créées et exécutées, paires encore séparées
+    public String statistics() {
+        long[] sites = new long[Superinstructions.NAMES.length];
+        long[] executed = new long[Superinstructions.NAMES.length];
+        java.util.HashMap<Integer, Long> missed = new java.util.HashMap<>();
+        for (Block block : history) {
+            for (int i = 0; i < sites.length; i++) {
+                sites[i] += block.fusions[i];
+                executed[i] += block.fusions[i] * block.executions;
+            }
+            for (int pair : block.missedPairs) missed.merge(pair, block.executions, Long::sum);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Blocs compilés : ").append(compiledBlocks).append(", invalidés : ").append(invalidatedBlocks).append('\n');
+        sb.append("Classes de paires (toutes formes, tous CPU) : ").append(pairClasses.get()).append('\n');
+        sb.append("Superinstructions (sites / exécutions) :\n");
+        for (int i = 0; i < sites.length; i++) {
+            sb.append(String.format(Locale.ROOT, "  %-24s %6d %16d%n", Superinstructions.NAMES[i], sites[i], executed[i]));
+        }
+        sb.append("Paires non fusionnées les plus exécutées :\n");
+        missed.entrySet().stream()
+                .sorted((x, y) -> Long.compare(y.getValue(), x.getValue()))
+                .limit(10)
+                .forEach(e -> sb.append(String.format(Locale.ROOT, "  %s %s %16d%n",
+                        CpuView.hex8(e.getKey() >> 8), CpuView.hex8(e.getKey() & 0xFF), e.getValue())));
+        return sb.toString();
+    }
+}
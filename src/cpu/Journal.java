@@ -0,0 +1,150 @@
+package cpu;
+
+import java.util.function.IntPredicate;
+
+// Classe Journal
+// Journal d'exécution pour revenir en arrière (pas arrière, retour jusqu'à un point d'arrêt) :
+// avant chaque instruction, les registres sont rangés sous forme compacte dans un tampon circulaire
+// de taille fixe, et chaque octet de RAM écrasé est ajouté au journal des écritures (adresse et
+// ancienne valeur). Tout est stocké dans des tableaux primitifs alloués une seule fois :
+// l'enregistrement n'alloue rien. Les plus anciennes instructions sont oubliées quand le tampon est plein.
+public final class Journal {
+
+    public static final int DEFAULT_INSTRUCTIONS = 1 << 16; // Instructions annulables par défaut
+    public static final int DEFAULT_WRITES = 1 << 16;       // Octets écrasés conservés par défaut
+
+    // Registres d'une instruction : 8 entiers par entrée
+    private static final int STRIDE = 8;
+
+    private final int capacity;       // Nombre d'instructions conservées
+    private final int[] registers;    // A|B|DP|CC, X|Y, U|S, PC|dernière adresse, RI|arrêté|sommet de pile, profondeur de pile,
+                                      // nature et résultat des flags en attente (CC n'est pas recalculé à chaque instruction)
+    private final long[] cycles;      // Compteur de cycles avant chaque instruction
+    private final long[] writeStart;  // Position dans le journal des écritures au début de chaque instruction
+    private final int[] writes;       // Octets écrasés : adresse << 8 | ancienne valeur
+    private long recorded;            // Instructions enregistrées depuis le dernier effacement
+    private long written;             // Écritures enregistrées depuis le dernier effacement
+    private long writeHigh;           // Plus grande valeur atteinte par written (au-delà d'un retour arrière)
+    private int size;                 // Instructions annulables
+
+    // Taille du journal : nombre d'instructions et nombre d'octets écrasés conservés
+    public Journal(int instructions, int writes) {
+        if (instructions <= 0 || writes <= 0) {
+            throw new IllegalArgumentException("Taille de journal invalide : " + instructions + " / " + writes);
+        }
+        this.capacity = instructions;
+        this.registers = new int[instructions * STRIDE];
+        this.cycles = new long[instructions];
+        this.writeStart = new long[instructions];
+        this.writes = new int[writes];
+    }
+
+    public Journal() {
+        this(DEFAULT_INSTRUCTIONS, DEFAULT_WRITES);
+    }
+
+    // Mémoire occupée par le journal, en octets
+    public long footprint() {
+        return (long) registers.length * 4 + cycles.length * 8L + writeStart.length * 8L + writes.length * 4L;
+    }
+
+    // Nombre d'instructions qui peuvent être annulées
+    public int size() {
+        return size;
+    }
+
+    // Oublie tout l'historique (nouveau programme, remise à zéro, restauration d'un instantané)
+    public void clear() {
+        recorded = written = writeHigh = 0;
+        size = 0;
+    }
+
+    // Enregistre l'état du CPU avant l'exécution d'une instruction
+    void record(CPU cpu) {
+        CpuState state = cpu.state;
+        int slot = (int) (recorded % capacity);
+        int base = slot * STRIDE;
+        int depth = cpu.callStack.size();
+        int top = depth > 0 ? cpu.callStack.peek() : 0;
+        registers[base] = state.a | (state.b << 8) | (state.dp << 16) | (state.rawCC() << 24);
+        registers[base + 1] = state.x | (state.y << 16);
+        registers[base + 2] = state.u | (state.s << 16);
+        registers[base + 3] = state.pc | (cpu.lastAddress << 16);
+        registers[base + 4] = state.ri | (state.halted ? 0x100 : 0) | (top << 16);
+        registers[base + 5] = depth;
+        registers[base + 6] = state.pendingFlags();
+        registers[base + 7] = state.pendingResult();
+        cycles[slot] = state.cycles;
+        writeStart[slot] = written;
+        recorded++;
+        if (size < capacity) size++;
+    }
+
+    // Enregistre l'ancienne valeur d'un octet de RAM sur le point d'être écrasé
+    void recordWrite(int address, int old) {
+        writes[(int) (written % writes.length)] = (address << 8) | (old & 0xFF);
+        written++;
+        if (written > writeHigh) writeHigh = written;
+    }
+
+    // Annule la dernière instruction exécutée, retourne faux si l'historique est épuisé
+    public boolean stepBack(CPU cpu) {
+        if (size == 0) return false;
+        long index = recorded - 1;
+        int slot = (int) (index % capacity);
+        if (writeHigh - writeStart[slot] > writes.length) { // Écritures déjà recouvertes : annulation impossible
+            size = 0;
+            return false;
+        }
+
+        // Octets de RAM remis dans l'ordre inverse des écritures
+        Memory memory = cpu.memory;
+        for (long w = written - 1; w >= writeStart[slot]; w--) {
+            int entry = writes[(int) (w % writes.length)];
+            memory.restore8(entry >>> 8, entry);
+        }
+        written = writeStart[slot];
+
+        CpuState state = cpu.state;
+        int base = slot * STRIDE;
+        int packed = registers[base];
+        state.a = packed & 0xFF;
+        state.b = (packed >>> 8) & 0xFF;
+        state.dp = (packed >>> 16) & 0xFF;
+        state.restoreFlags(packed >>> 24, registers[base + 6], registers[base + 7]);
+        state.x = registers[base + 1] & 0xFFFF;
+        state.y = registers[base + 1] >>> 16;
+        state.u = registers[base + 2] & 0xFFFF;
+        state.s = registers[base + 2] >>> 16;
+        state.pc = registers[base + 3] & 0xFFFF;
+        cpu.lastAddress = registers[base + 3] >>> 16;
+        state.ri = registers[base + 4] & 0xFF;
+        state.halted = (registers[base + 4] & 0x100) != 0;
+        state.cycles = cycles[slot];
+
+        // Pile d'appels : une adresse dépilée par RTS est remise au sommet
+        int depth = registers[base + 5];
+        while (cpu.callStack.size() > depth) cpu.callStack.pop();
+        if (cpu.callStack.size() < depth) cpu.callStack.push(registers[base + 4] >>> 16);
+
+        recorded = index;
+        size--;
+        return true;
+    }
+
+    // Revient en arrière jusqu'à ce que stop soit vrai pour PC (instruction sur le point d'être exécutée),
+    // au plus max instructions. Retourne le nombre d'instructions annulées.
+    public long reverseContinue(CPU cpu, IntPredicate stop, long max) {
+        long count = 0;
+        while (count < max && stepBack(cpu)) {
+            count++;
+            if (stop != null && stop.test(cpu.state.pc)) break;
+        }
+        return count;
+    }
+
+    // Revient en arrière jusqu'à la précédente exécution de l'instruction à une adresse
+    public long runBackTo(CPU cpu, int address, long max) {
+        return reverseContinue(cpu, pc -> pc == (address & 0xFFFF), max);
+    }
+}
@@ -0,0 +1,201 @@
+package cpu;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseMotionAdapter;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Classe LiveAssembler
+// Assemblage en arrière-plan pendant la frappe dans l'éditeur. Le découpage de chaque ligne
+// (Assembler.Statement) est gardé dans un cache indexé par ligne : une modification ne vide
+// que les lignes touchées, et l'insertion ou la suppression de lignes décale le cache sans rien
+// redécouper. Après une pause de la frappe, les lignes vidées sont découpées et le programme est
+// assemblé (deux passes, adresses et symboles) sur un thread dédié ; le résultat revient sur l'EDT,
+// où les lignes en erreur sont soulignées en rouge, celles qui ont un avertissement en orange.
+// Un résultat dépassé par une nouvelle frappe est ignoré.
+public final class LiveAssembler {
+
+    public static final int DELAY_MILLIS = 300; // Pause de la frappe avant l'assemblage
+    private static final Color ERROR_COLOR = new Color(255, 51, 51);
+    private static final Color WARNING_COLOR = new Color(255, 170, 0);
+
+    private final JTextArea editor;
+    private final Element root; // Une ligne du document par élément fils
+    private final ArrayList<Assembler.Statement> lines = new ArrayList<>(); // Cache (null : ligne à redécouper)
+    private final Timer timer = new Timer(DELAY_MILLIS, e -> assembleLater());
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "assembleur");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ArrayList<Object> underlines = new ArrayList<>(); // Soulignements posés dans l'éditeur
+    private int version;           // Incrémentée à chaque modification du document
+    private Program program;       // Dernier programme assemblé (null avant le premier assemblage)
+    private int programVersion = -1; // Version du document assemblée dans program
+    private String[] messages = new String[0]; // Message d'erreur ou d'avertissement par ligne (null si aucun)
+
+    // Constructeur
+    public LiveAssembler(JTextArea editor) {
+        this.editor = editor;
+        this.root = editor.getDocument().getDefaultRootElement();
+        lines.addAll(Collections.nCopies(root.getElementCount(), null));
+        timer.setRepeats(false);
+
+        editor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { changed(e); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { changed(e); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { } // Attributs seulement : le texte est inchangé
+        });
+
+        // Le message d'erreur de la ligne survolée
+        editor.addMouseMotionListener(new MouseMotionAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int line = root.getElementIndex(editor.viewToModel2D(e.getPoint()));
+                editor.setToolTipText(line < messages.length ? messages[line] : null);
+            }
+        });
+        timer.start();
+    }
+
+    // Programme correspondant au texte actuel de l'éditeur (sur l'EDT) : le résultat en arrière-plan
+    // s'il est à jour, sinon un assemblage immédiat qui ne redécoupe que les lignes modifiées
+    public Program assembleNow() {
+        if (program != null && programVersion == version) return program;
+        Assembler.Statement[] statements = lines.toArray(new Assembler.Statement[0]);
+        for (int i = 0; i < statements.length; i++) {
+            if (statements[i] == null) lines.set(i, statements[i] = Assembler.Statement.parse(lineText(i)));
+        }
+        publish(Assembler.assemble(statements), version);
+        return program;
+    }
+
+    // Modification du document : seules les lignes touchées sont vidées du cache
+    private void changed(DocumentEvent e) {
+        version++;
+        DocumentEvent.ElementChange change = e.getChange(root);
+        if (change == null) { // Modification à l'intérieur d'une seule ligne
+            lines.set(root.getElementIndex(e.getOffset()), null);
+        } else { // Lignes remplacées : les suivantes gardent leur découpage (décalé)
+            int index = change.getIndex();
+            lines.subList(index, index + change.getChildrenRemoved().length).clear();
+            lines.addAll(index, Collections.nCopies(change.getChildrenAdded().length, null));
+        }
+        timer.restart();
+    }
+
+    // Fin de la pause de la frappe (EDT) : copie du cache et des lignes à redécouper, puis assemblage
+    // sur le thread de l'assembleur (les lignes sont lues ici, le document n'est jamais lu hors de l'EDT)
+    private void assembleLater() {
+        int snapshot = version;
+        Assembler.Statement[] statements = lines.toArray(new Assembler.Statement[0]);
+        String[] texts = new String[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            if (statements[i] == null) texts[i] = lineText(i);
+        }
+        worker.execute(() -> {
+            for (int i = 0; i < statements.length; i++) {
+                if (statements[i] == null) statements[i] = Assembler.Statement.parse(texts[i]);
+            }
+            Program assembled = Assembler.assemble(statements);
+            SwingUtilities.invokeLater(() -> {
+                if (snapshot != version) return; // Document modifié entre-temps : un autre assemblage suivra
+                for (int i = 0; i < statements.length; i++) lines.set(i, statements[i]);
+                publish(assembled, snapshot);
+            });
+        });
+    }
+
+    // Nouveau programme (EDT) : soulignement des lignes en erreur ou avec un avertissement
+    private void publish(Program assembled, int assembledVersion) {
+        program = assembled;
+        programVersion = assembledVersion;
+        Highlighter highlighter = editor.getHighlighter();
+        for (Object tag : underlines) highlighter.removeHighlight(tag);
+        underlines.clear();
+        messages = new String[lines.size()];
+
+        // Éditeur vide : l'absence de END n'est signalée qu'à l'enregistrement
+        boolean blank = lines.stream().allMatch(statement -> statement.mnemonic == null && statement.label == null
+                && statement.error == null);
+        for (Assembler.AssemblyError error : assembled.errors) {
+            if (!blank) underline(error.line, error.message, ERROR_UNDERLINE);
+        }
+        for (Assembler.AssemblyError warning : assembled.warnings) {
+            underline(warning.line, "attention : " + warning.message, WARNING_UNDERLINE);
+        }
+    }
+
+    // Souligne le texte d'une ligne et retient son message pour l'infobulle
+    private void underline(int index, String message, Highlighter.HighlightPainter painter) {
+        if (index >= messages.length) return;
+        messages[index] = message;
+        Element line = root.getElement(index);
+        String text = lineText(index);
+        int start = line.getStartOffset() + (text.length() - text.stripLeading().length());
+        int end = line.getStartOffset() + text.stripTrailing().length();
+        try {
+            underlines.add(editor.getHighlighter().addHighlight(start, Math.max(start, end), painter));
+        } catch (BadLocationException e) {
+            // Ligne disparue : le prochain assemblage la remplacera
+        }
+    }
+
+    // Texte d'une ligne du document, sans le saut de ligne
+    private String lineText(int line) {
+        Element element = root.getElement(line);
+        try {
+            Document document = editor.getDocument();
+            String text = document.getText(element.getStartOffset(), element.getEndOffset() - element.getStartOffset());
+            return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+        } catch (BadLocationException e) {
+            return "";
+        }
+    }
+
+    private static final Highlighter.HighlightPainter ERROR_UNDERLINE = underline(ERROR_COLOR);
+    private static final Highlighter.HighlightPainter WARNING_UNDERLINE = underline(WARNING_COLOR);
+
+    // Soulignement ondulé sous le texte d'une ligne (sur chaque rangée si la ligne est repliée)
+    private static Highlighter.HighlightPainter underline(Color color) {
+        return (g, p0, p1, bounds, c) -> {
+            try {
+                Rectangle2D first = c.modelToView2D(p0), last = c.modelToView2D(p1);
+                Rectangle area = bounds.getBounds();
+                g.setColor(color);
+                if (first.getY() == last.getY()) {
+                    zigzag(g, (int) first.getX(), (int) Math.max(last.getX(), first.getX() + 8), (int) first.getMaxY() - 2);
+                    return;
+                }
+                zigzag(g, (int) first.getX(), area.x + area.width, (int) first.getMaxY() - 2);
+                for (double y = first.getMaxY() + last.getHeight(); y < last.getMaxY(); y += last.getHeight()) {
+                    zigzag(g, area.x, area.x + area.width, (int) y - 2);
+                }
+                zigzag(g, area.x, (int) last.getX(), (int) last.getMaxY() - 2);
+            } catch (BadLocationException e) {
+                // Texte modifié pendant le dessin : rien à souligner
+            }
+        };
+    }
+
+    private static void zigzag(Graphics g, int from, int to, int y) {
+        int[] xs = new int[(to - from) / 2 + 2];
+        int[] ys = new int[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = Math.min(from + 2 * i, to);
+            ys[i] = y + (i % 2 == 0 ? 0 : 2);
+        }
+        g.drawPolyline(xs, ys, xs.length);
+    }
+}
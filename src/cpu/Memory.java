@@ -0,0 +1,179 @@
+package cpu;
+
+import java.util.Arrays;
+
+// Classe Memory
+// Espace d'adressage complet du 6809 : 64 Ko stockés dans un seul tableau d'octets.
+// La ROM est projetée à partir de FE00 et protégée en écriture pour le programme.
+// Pour les instantanés (Snapshot), la mémoire est vue comme 256 pages de 256 octets :
+// seules les pages modifiées depuis l'instantané précédent sont recopiées, les autres sont partagées.
+public class Memory {
+
+    public static final int SIZE = 0x10000;      // Taille de l'espace d'adressage (64 Ko)
+    public static final int ROM_START = 0xFE00;  // Début de la zone ROM
+    public static final int PAGE_SIZE = 0x100;   // Taille d'une page des instantanés
+    public static final int PAGES = SIZE / PAGE_SIZE;
+
+    private final byte[] data = new byte[SIZE];  // Contenu de la mémoire
+    private int romEnd = ROM_START;              // Fin (exclue) du programme chargé en ROM
+    private int romVersion;                      // Incrémentée à chaque réécriture de la ROM
+    private int dirtyLow = SIZE, dirtyHigh = -1; // Plage RAM modifiée depuis le dernier affichage
+    private final long[] codeBits = new long[SIZE / 64]; // Adresses lues par un bloc compilé (Jit), 1 bit par octet
+    private int codeVersion;                     // Incrémentée quand du code compilé peut avoir changé
+    private final long[] pageBits = new long[PAGES / 64]; // Pages modifiées depuis le dernier instantané
+    private byte[][] lastPages;                  // Pages du dernier instantané (partagées, jamais modifiées)
+    Journal journal;                             // Journal des octets écrasés (null : pas d'enregistrement)
+
+    // Lecture d'un octet
+    public int read8(int address) {
+        return data[address & 0xFFFF] & 0xFF;
+    }
+
+    // Lecture d'un mot de 16 bits (octet de poids fort en premier)
+    public int read16(int address) {
+        return (read8(address) << 8) | read8(address + 1);
+    }
+
+    // Écriture d'un octet (ignorée dans la zone ROM)
+    public void write8(int address, int value) {
+        address &= 0xFFFF;
+        if (address >= ROM_START) return;
+        if (journal != null) journal.recordWrite(address, data[address]);
+        store(address, value);
+    }
+
+    // Remet un octet de RAM à son ancienne valeur (retour arrière, sans passer par le journal)
+    void restore8(int address, int value) {
+        store(address & 0xFFFF, value);
+    }
+
+    private void store(int address, int value) {
+        data[address] = (byte) value;
+        if ((codeBits[address >>> 6] & (1L << address)) != 0) codeVersion++; // Code auto-modifiant
+        pageBits[address >>> 14] |= 1L << (address >>> 8);
+        if (address < dirtyLow) dirtyLow = address;
+        if (address > dirtyHigh) dirtyHigh = address;
+    }
+
+    // Écriture d'un mot de 16 bits (octet de poids fort en premier)
+    public void write16(int address, int value) {
+        write8(address, value >> 8);
+        write8(address + 1, value);
+    }
+
+    // Écriture d'un octet en ROM (réservée au chargement du programme)
+    public void writeROM(int address, int value) {
+        address &= 0xFFFF;
+        data[address] = (byte) value;
+        if (address >= ROM_START && address >= romEnd) romEnd = address + 1;
+        romVersion++;
+        codeVersion++;
+        pageBits[address >>> 14] |= 1L << (address >>> 8);
+    }
+
+    // Indique si une adresse appartient à la ROM
+    public static boolean isROM(int address) {
+        return (address & 0xFFFF) >= ROM_START;
+    }
+
+    // Fin (exclue) du programme chargé en ROM
+    public int getRomEnd() {
+        return romEnd;
+    }
+
+    // Version courante de la ROM (permet d'invalider le programme décodé)
+    public int getRomVersion() {
+        return romVersion;
+    }
+
+    // Version du code : les blocs compilés sont revérifiés lorsqu'elle change
+    public int getCodeVersion() {
+        return codeVersion;
+    }
+
+    // Signale que les octets de start à end (exclu) appartiennent à un bloc compilé
+    public void markCode(int start, int end) {
+        for (int address = start; address < end; address++) {
+            codeBits[(address & 0xFFFF) >>> 6] |= 1L << address;
+        }
+    }
+
+    // Plage RAM modifiée depuis le dernier appel à clearDirty (dirtyHigh < dirtyLow si aucune)
+    public int getDirtyLow() {
+        return dirtyLow;
+    }
+
+    public int getDirtyHigh() {
+        return dirtyHigh;
+    }
+
+    public void clearDirty() {
+        dirtyLow = SIZE;
+        dirtyHigh = -1;
+    }
+
+    // Ajoute une plage à rafraîchir (image retirée avant d'avoir été affichée)
+    public void markDirty(int low, int high) {
+        if (high < low) return;
+        dirtyLow = Math.min(dirtyLow, low);
+        dirtyHigh = Math.max(dirtyHigh, high);
+    }
+
+    // Pages de la mémoire pour un instantané : copie des pages modifiées depuis le précédent,
+    // partage des autres avec lui (les tableaux retournés ne doivent jamais être modifiés)
+    byte[][] snapshotPages() {
+        byte[][] pages = new byte[PAGES][];
+        for (int page = 0; page < PAGES; page++) {
+            boolean modified = (pageBits[page >>> 6] & (1L << page)) != 0;
+            if (lastPages != null && !modified) {
+                pages[page] = lastPages[page];
+            } else {
+                pages[page] = Arrays.copyOfRange(data, page * PAGE_SIZE, (page + 1) * PAGE_SIZE);
+            }
+        }
+        Arrays.fill(pageBits, 0);
+        lastPages = pages;
+        return pages;
+    }
+
+    // Remplace toute la mémoire par les pages d'un instantané
+    void restorePages(byte[][] pages, int romEnd) {
+        boolean romChanged = this.romEnd != romEnd;
+        for (int page = 0; page < PAGES; page++) {
+            int start = page * PAGE_SIZE;
+            if (start >= ROM_START && !romChanged) {
+                romChanged = !Arrays.equals(data, start, start + PAGE_SIZE, pages[page], 0, PAGE_SIZE);
+            }
+            System.arraycopy(pages[page], 0, data, start, PAGE_SIZE);
+        }
+        this.romEnd = romEnd;
+        if (romChanged) romVersion++; // Le programme décodé ne correspond plus à la ROM
+        codeVersion++;
+        Arrays.fill(pageBits, 0);
+        lastPages = pages;
+        dirtyLow = 0;
+        dirtyHigh = ROM_START - 1;
+    }
+
+    // Efface la RAM uniquement
+    public void clearRAM() {
+        Arrays.fill(data, 0, ROM_START, (byte) 0);
+        codeVersion++;
+        lastPages = null; // Le prochain instantané recopie toutes les pages
+    }
+
+    // Efface la ROM uniquement
+    public void clearROM() {
+        Arrays.fill(data, ROM_START, SIZE, (byte) 0);
+        romEnd = ROM_START;
+        romVersion++;
+        codeVersion++;
+        lastPages = null;
+    }
+
+    // Efface toute la mémoire
+    public void clear() {
+        clearRAM();
+        clearROM();
+    }
+}
@@ -0,0 +1,128 @@
+package cpu;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+// Classe MemoryHeatmap
+// Carte de chaleur des 64 Ko : une image de 256 x 256 pixels (une ligne par page de 256 octets),
+// rouge pour les écritures, vert pour les lectures, bleu pour les exécutions. À cadence fixe,
+// les compteurs d'accès sont relus, leur progression s'ajoute à une chaleur qui décroît à chaque
+// image, puis tous les pixels sont écrits directement dans le tampon d'une seule BufferedImage.
+// Le coût ne dépend pas du nombre d'accès : la pile qui grandit, le parcours d'une table ou
+// une écriture hors limites apparaissent d'un coup d'œil.
+public class MemoryHeatmap extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int FRAME_MILLIS = 50;     // 20 images par seconde
+    public static final float DECAY = 0.9f;        // Chaleur conservée d'une image à la suivante
+    public static final float SATURATION = 4096f;  // Chaleur affichée à pleine intensité
+    private static final int SCALE = 2;            // Taille d'une adresse à l'écran, en pixels
+
+    private final AccessCounters counters;
+    private final BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+    private final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    private final int[] lastReads = new int[Memory.SIZE];    // Compteurs lus à l'image précédente
+    private final int[] lastWrites = new int[Memory.SIZE];
+    private final int[] lastExecutes = new int[Memory.SIZE];
+    private final float[] readHeat = new float[Memory.SIZE]; // Chaleur de chaque adresse
+    private final float[] writeHeat = new float[Memory.SIZE];
+    private final float[] executeHeat = new float[Memory.SIZE];
+    private final int[] intensity = new int[4097];           // Chaleur (arrondie) -> intensité 0..255
+    private final Timer timer = new Timer(FRAME_MILLIS, e -> frame());
+    private MemoryTable.AddressListener listener;
+
+    // Constructeur
+    public MemoryHeatmap(AccessCounters counters) {
+        this.counters = counters;
+        setPreferredSize(new Dimension(256 * SCALE, 256 * SCALE));
+        setToolTipText("");
+
+        // Échelle logarithmique : un accès isolé reste visible, une boucle sature
+        for (int heat = 1; heat < intensity.length; heat++) {
+            intensity[heat] = (int) (48 + 207 * Math.log1p(heat) / Math.log1p(SATURATION));
+        }
+
+        // Les compteurs actuels servent de référence : seuls les accès suivants chauffent la carte
+        System.arraycopy(counters.reads, 0, lastReads, 0, Memory.SIZE);
+        System.arraycopy(counters.writes, 0, lastWrites, 0, Memory.SIZE);
+        System.arraycopy(counters.executes, 0, lastExecutes, 0, Memory.SIZE);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int address = addressAt(e.getPoint());
+                if (listener != null && address >= 0) listener.addressClicked(address, e);
+            }
+        });
+    }
+
+    public void setAddressListener(MemoryTable.AddressListener listener) {
+        this.listener = listener;
+    }
+
+    // Le rafraîchissement ne tourne que pendant l'affichage
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    // Une image : progression des compteurs, décroissance, puis écriture des pixels
+    private void frame() {
+        int[] reads = counters.reads, writes = counters.writes, executes = counters.executes;
+        for (int address = 0; address < Memory.SIZE; address++) {
+            int read = reads[address], write = writes[address], execute = executes[address];
+            readHeat[address] = heat(readHeat[address], read - lastReads[address]);
+            writeHeat[address] = heat(writeHeat[address], write - lastWrites[address]);
+            executeHeat[address] = heat(executeHeat[address], execute - lastExecutes[address]);
+            lastReads[address] = read;
+            lastWrites[address] = write;
+            lastExecutes[address] = execute;
+            pixels[address] = (level(writeHeat[address]) << 16) | (level(readHeat[address]) << 8)
+                    | level(executeHeat[address]);
+        }
+        repaint();
+    }
+
+    // Nouvelle chaleur : ancienne chaleur atténuée plus les accès depuis l'image précédente
+    // (ramenée à zéro quand elle n'est plus visible, pour ne pas traîner des flottants minuscules)
+    private static float heat(float heat, int accesses) {
+        heat = heat * DECAY + accesses;
+        return heat < 0.5f ? 0 : heat;
+    }
+
+    private int level(float heat) {
+        if (heat == 0) return 0;
+        return heat >= SATURATION ? 255 : intensity[(int) (heat + 0.5f)];
+    }
+
+    // Adresse sous un point de la carte (-1 hors de l'image)
+    private int addressAt(Point point) {
+        int x = point.x / SCALE, y = point.y / SCALE;
+        return x >= 0 && x < 256 && y >= 0 && y < 256 ? (y << 8) | x : -1;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int address = addressAt(event.getPoint());
+        if (address < 0) return null;
+        return CpuView.hex16(address) + " : " + counters.getReads(address) + " lectures, "
+                + counters.getWrites(address) + " écritures, " + counters.getExecutes(address) + " exécutions";
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.drawImage(image, 0, 0, 256 * SCALE, 256 * SCALE, null);
+    }
+}
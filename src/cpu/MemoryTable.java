@@ -0,0 +1,250 @@
+package cpu;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.IntFunction;
+import ui.ComponentShadow;
+import ui.CustomScroller;
+
+// Classe MemoryTable
+// Vue virtualisée d'une plage de la mémoire : une ligne par adresse (adresse, valeur).
+// Le JTable ne dessine que les lignes visibles, la plage peut donc couvrir les 64 Ko
+// sans créer un composant par cellule. Les valeurs sont lues dans Memory à l'affichage.
+public class MemoryTable extends JTable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Color BACKGROUND = new Color(6, 26, 83);
+    private static final Font CELL_FONT = new Font("Segoe UI", Font.PLAIN, 14);    // Police d'une cellule
+    private static final Font CURRENT_FONT = new Font("Segoe UI", Font.BOLD, 14);  // Police de la cellule courante
+    private static final Border CELL_BORDER = BorderFactory.createEmptyBorder(1, 6, 1, 6);
+
+    private final Model model;
+    private final Color highlightColor; // Couleur de la cellule courante
+    private int currentRow = -1;        // Ligne en surbrillance (instruction courante)
+    private int hoverRow = -1;          // Ligne survolée par la souris
+    private IntFunction<Color> marker = address -> null; // Fond des adresses marquées (null : aucun)
+    private AddressListener listener;   // Action au clic sur une adresse
+
+    // Action au clic sur une adresse (points d'arrêt, points d'observation)
+    public interface AddressListener {
+        void addressClicked(int address, MouseEvent event);
+    }
+
+    // Modèle du tableau : les lignes sont calculées à la demande à partir de la mémoire
+    public static class Model extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private final Memory memory;
+        private final int start;  // Première adresse affichée
+        private final int count;  // Nombre d'adresses affichées
+
+        public Model(Memory memory, int start, int count) {
+            this.memory = memory;
+            this.start = start;
+            this.count = count;
+        }
+
+        @Override
+        public int getRowCount() {
+            return count;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 2;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int address = start + row;
+            if (column == 0) return CpuView.hex16(address);
+            // Les cellules ROM au-delà du programme chargé sont affichées vides
+            if (Memory.isROM(address) && address >= memory.getRomEnd()) return "";
+            return CpuView.hex8(memory.read8(address));
+        }
+
+        // Adresse affichée sur une ligne
+        public int addressOf(int row) {
+            return start + row;
+        }
+
+        // Ligne d'une adresse (-1 si elle n'est pas dans la plage)
+        public int rowOf(int address) {
+            int row = address - start;
+            return row >= 0 && row < count ? row : -1;
+        }
+
+        // Signale les adresses modifiées entre low et high (inclus)
+        public void cellsChanged(int low, int high) {
+            int first = Math.max(low - start, 0);
+            int last = Math.min(high - start, count - 1);
+            if (first <= last) fireTableRowsUpdated(first, last);
+        }
+    }
+
+    // Constructeur
+    public MemoryTable(Memory memory, int start, int count, Color highlightColor) {
+        this.model = new Model(memory, start, count);
+        this.highlightColor = highlightColor;
+        setModel(model);
+
+        setTableHeader(null);
+        setBackground(BACKGROUND);
+        setForeground(Color.WHITE);
+        setGridColor(Color.WHITE);
+        setShowVerticalLines(false);
+        setShowHorizontalLines(true);
+        setRowHeight(22);
+        setFillsViewportHeight(true);
+        setFocusable(false);
+        setRowSelectionAllowed(false);
+        setDefaultRenderer(Object.class, new CellRenderer());
+
+        // Effet de survol ligne par ligne
+        MouseAdapter hoverAdapter = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverRow(rowAtPoint(e.getPoint()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverRow(-1);
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int row = rowAtPoint(e.getPoint());
+                if (listener != null && row >= 0) listener.addressClicked(model.addressOf(row), e);
+            }
+        };
+        addMouseListener(hoverAdapter);
+        addMouseMotionListener(hoverAdapter);
+    }
+
+    public Model getMemoryModel() {
+        return model;
+    }
+
+    public void setMarker(IntFunction<Color> marker) {
+        this.marker = marker;
+        repaint();
+    }
+
+    public void setAddressListener(AddressListener listener) {
+        this.listener = listener;
+    }
+
+    // Redessine la ligne d'une adresse (marqueur ajouté ou retiré)
+    public void refreshAddress(int address) {
+        model.cellsChanged(address, address);
+    }
+
+    // Met en surbrillance l'adresse courante : seules l'ancienne et la nouvelle ligne sont redessinées
+    public void setCurrent(int address) {
+        int row = model.rowOf(address);
+        int previous = currentRow;
+        currentRow = row;
+        if (previous >= 0) model.fireTableRowsUpdated(previous, previous);
+        if (row >= 0) {
+            model.fireTableRowsUpdated(row, row);
+            scrollToRow(row);
+        }
+    }
+
+    // Fait défiler la vue jusqu'à une adresse, retourne false si elle n'est pas dans la plage
+    public boolean jumpTo(int address) {
+        int row = model.rowOf(address);
+        if (row < 0) return false;
+        scrollToRow(row);
+        setHoverRow(row);
+        return true;
+    }
+
+    private void scrollToRow(int row) {
+        Rectangle cell = getCellRect(row, 0, true);
+        if (!getVisibleRect().contains(cell)) scrollRectToVisible(cell);
+    }
+
+    private void setHoverRow(int row) {
+        if (row == hoverRow) return;
+        int previous = hoverRow;
+        hoverRow = row;
+        if (previous >= 0) model.fireTableRowsUpdated(previous, previous);
+        if (row >= 0) model.fireTableRowsUpdated(row, row);
+    }
+
+    // Panneau complet : titre, champ "aller à l'adresse" et tableau défilant
+    public JPanel createPanel(String title, int width, int height, int x, int y) {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setPreferredSize(new Dimension(width, height));
+        panel.setBounds(x, y, width, height);
+        panel.setBackground(BACKGROUND);
+        panel.setBorder(new ComponentShadow());
+
+        // Header : titre et champ de saut vers une adresse
+        JPanel header = new JPanel(new BorderLayout());
+        header.setOpaque(false);
+        JLabel headerLabel = new JLabel(title, SwingConstants.CENTER);
+        headerLabel.setForeground(Color.WHITE);
+        headerLabel.setFont(new Font("Roboto Black", Font.BOLD, 22));
+        header.add(headerLabel, BorderLayout.CENTER);
+
+        JTextField jumpField = new JTextField(4);
+        jumpField.setToolTipText("Aller à l'adresse (hexadécimal)");
+        jumpField.setBackground(BACKGROUND);
+        jumpField.setForeground(Color.WHITE);
+        jumpField.setCaretColor(Color.WHITE);
+        jumpField.setFont(CELL_FONT);
+        jumpField.setBorder(BorderFactory.createLineBorder(Color.WHITE, 1, true));
+        jumpField.addActionListener(e -> {
+            String text = jumpField.getText().trim().replace("$", "");
+            try {
+                if (!jumpTo(Integer.parseInt(text, 16))) throw new NumberFormatException();
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(null, "Adresse invalide : " + text, "Erreur", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        header.add(jumpField, BorderLayout.EAST);
+        header.setBorder(BorderFactory.createEmptyBorder(0, 6, 6, 6));
+        panel.add(header, BorderLayout.NORTH);
+
+        // Scroll pane pour le tableau
+        JScrollPane scrollPane = new JScrollPane(this);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getViewport().setBackground(BACKGROUND);
+        scrollPane.getVerticalScrollBar().setUI(new CustomScroller());
+        scrollPane.getVerticalScrollBar().setUnitIncrement(6);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    // Rendu d'une cellule : adresse à gauche, valeur à droite, surbrillance de la ligne courante
+    private class CellRenderer extends DefaultTableCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, false, false, row, column);
+            setHorizontalAlignment(column == 0 ? SwingConstants.LEFT : SwingConstants.RIGHT);
+            setBorder(CELL_BORDER);
+            Color mark = marker.apply(model.addressOf(row));
+            setBackground(mark != null ? mark : BACKGROUND);
+            if (row == currentRow) {
+                setForeground(highlightColor);
+                setFont(CURRENT_FONT);
+            } else {
+                setForeground(row == hoverRow ? Color.YELLOW : Color.WHITE);
+                setFont(CELL_FONT);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cpu;
+
+// Classe OpPair
+// Deux instructions compilées exécutées l'une après l'autre. Jit charge une copie de cette classe
+// (classe cachée) pour chaque forme de paire (classes des deux instructions) : les deux appels
+// restent monomorphes et HotSpot peut les intégrer, si bien qu'un bloc entier devient une seule
+// méthode optimisée.
+final class OpPair implements Jit.Op {
+
+    private final Jit.Op first;
+    private final Jit.Op second;
+
+    OpPair(Jit.Op first, Jit.Op second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void run(CPU cpu) {
+        first.run(cpu);
+        second.run(cpu);
+    }
+}
@@ -0,0 +1,51 @@
+package cpu;
+
+import static cpu.CpuState.*;
+
+// Enum Opcode
+// Instructions supportées par le simulateur, avec le registre qu'elles utilisent.
+// Sert à la dispatch rapide (switch sur enum) du programme pré-décodé.
+public enum Opcode {
+    // Chargement et stockage
+    LDA(REG_A), LDB(REG_B), LDX(REG_X), LDY(REG_Y), LDU(REG_U), LDS(REG_S),
+    STA(REG_A), STB(REG_B), STX(REG_X), STY(REG_Y), STU(REG_U), STS(REG_S),
+
+    // Arithmétique et logique avec opérande
+    ADDA(REG_A), ADDB(REG_B), SUBA(REG_A), SUBB(REG_B), CMPA(REG_A), CMPB(REG_B),
+    ANDA(REG_A), ANDB(REG_B), ORA(REG_A), ORB(REG_B), EORA(REG_A), EORB(REG_B),
+
+    // Décalages et rotations
+    LSLA(REG_A), LSLB(REG_B), LSRA(REG_A), LSRB(REG_B),
+    ROLA(REG_A), ROLB(REG_B), RORA(REG_A), RORB(REG_B),
+
+    // Manipulation de registre
+    CLRA(REG_A), CLRB(REG_B), INCA(REG_A), INCB(REG_B), DECA(REG_A), DECB(REG_B),
+    COMA(REG_A), COMB(REG_B), NEGA(REG_A), NEGB(REG_B),
+
+    // Instructions système
+    NOP(REG_NONE), RTS(REG_NONE), END(REG_NONE), SWI(REG_NONE),
+
+    // Branchements et sauts
+    BRA(REG_NONE), BEQ(REG_NONE), BNE(REG_NONE), BCC(REG_NONE), BCS(REG_NONE),
+    BMI(REG_NONE), BPL(REG_NONE), BVC(REG_NONE), BVS(REG_NONE), JMP(REG_NONE),
+    LBRA(REG_NONE), LBEQ(REG_NONE), LBNE(REG_NONE), LBCC(REG_NONE), LBCS(REG_NONE),
+    LBMI(REG_NONE), LBPL(REG_NONE), LBVC(REG_NONE), LBVS(REG_NONE),
+
+    // Transferts entre registres
+    TFR(REG_NONE), EXG(REG_NONE);
+
+    public final int reg; // Registre concerné par l'instruction (REG_NONE si aucun)
+
+    Opcode(int reg) {
+        this.reg = reg;
+    }
+
+    // Retourne l'opcode correspondant à un mnémonique, ou null s'il est inconnu
+    public static Opcode fromMnemonic(String mnemonic) {
+        try {
+            return valueOf(mnemonic.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
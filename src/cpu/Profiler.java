@@ -0,0 +1,143 @@
+package cpu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Classe Profiler
+// Profil de l'exécution : nombre d'exécutions et cycles consommés par adresse d'instruction,
+// dans deux tableaux long[] de 64K entrées (deux incréments par instruction, aucune allocation).
+// Les totaux par ligne du source et par label (sous-programme) sont calculés à la demande,
+// à partir du programme assemblé, pour le rapport des points chauds et la marge de l'éditeur.
+public final class Profiler {
+
+    private final long[] executions = new long[Memory.SIZE];
+    private final long[] cycles = new long[Memory.SIZE];
+
+    // Point chaud : une instruction, une ligne ou un label, avec ses totaux
+    public static final class HotSpot {
+        public final String name;  // Label ou instruction
+        public final int address;  // Adresse (de l'instruction ou du label)
+        public final int line;     // Ligne du source (-1 si inconnue)
+        public long executions;
+        public long cycles;
+
+        HotSpot(String name, int address, int line) {
+            this.name = name;
+            this.address = address;
+            this.line = line;
+        }
+    }
+
+    // Enregistre l'exécution d'une instruction (appelé après l'instruction)
+    void record(int pc, long instructionCycles) {
+        executions[pc]++;
+        cycles[pc] += instructionCycles;
+    }
+
+    // Oublie toutes les mesures
+    public void clear() {
+        Arrays.fill(executions, 0);
+        Arrays.fill(cycles, 0);
+    }
+
+    public long getExecutions(int address) {
+        return executions[address & 0xFFFF];
+    }
+
+    public long getCycles(int address) {
+        return cycles[address & 0xFFFF];
+    }
+
+    public long totalCycles() {
+        long total = 0;
+        for (long value : cycles) total += value;
+        return total;
+    }
+
+    public long totalExecutions() {
+        long total = 0;
+        for (long value : executions) total += value;
+        return total;
+    }
+
+    // Cycles par ligne du source (tableau indexé par ligne)
+    public long[] cyclesByLine(Program program) {
+        int lines = 0;
+        for (DecodedOp op : program.instructions) lines = Math.max(lines, op.line + 1);
+        long[] byLine = new long[lines];
+        for (DecodedOp op : program.instructions) byLine[op.line] += cycles[op.address];
+        return byLine;
+    }
+
+    // Instructions exécutées, de la plus coûteuse en cycles à la moins coûteuse
+    // (program null : programme inconnu, par exemple reprise d'un instantané)
+    public List<HotSpot> hotSpots(Program program) {
+        ArrayList<HotSpot> spots = new ArrayList<>();
+        for (int address = 0; address < Memory.SIZE; address++) {
+            if (executions[address] == 0) continue;
+            DecodedOp op = program == null ? null : program.at(address);
+            HotSpot spot = new HotSpot(op == null ? CpuView.hex16(address) : op.opcode.name(), address,
+                    op == null ? -1 : op.line);
+            spot.executions = executions[address];
+            spot.cycles = cycles[address];
+            spots.add(spot);
+        }
+        spots.sort((a, b) -> Long.compare(b.cycles, a.cycles));
+        return spots;
+    }
+
+    // Totaux par label : chaque instruction compte pour le dernier label qui la précède
+    // (les instructions avant le premier label sont regroupées sous "<début>")
+    public List<HotSpot> byLabel(Program program) {
+        TreeMap<Integer, HotSpot> labels = new TreeMap<>();
+        labels.put(Memory.ROM_START, new HotSpot("<début>", Memory.ROM_START, -1));
+        if (program != null) {
+            for (Map.Entry<String, Integer> entry : program.labelAddress.entrySet()) {
+                HotSpot current = labels.get(entry.getValue());
+                Integer line = program.labels.get(entry.getKey());
+                // Plusieurs labels à la même adresse : le premier dans le source est gardé
+                if (current == null || current.name.equals("<début>") || (line != null && line < current.line)) {
+                    labels.put(entry.getValue(), new HotSpot(entry.getKey(), entry.getValue(), line == null ? -1 : line));
+                }
+            }
+        }
+
+        LinkedHashMap<String, HotSpot> totals = new LinkedHashMap<>();
+        for (int address = 0; address < Memory.SIZE; address++) {
+            if (executions[address] == 0) continue;
+            Map.Entry<Integer, HotSpot> entry = labels.floorEntry(address);
+            HotSpot label = entry != null ? entry.getValue() : labels.firstEntry().getValue();
+            HotSpot total = totals.computeIfAbsent(label.name, name -> new HotSpot(name, label.address, label.line));
+            total.executions += executions[address];
+            total.cycles += cycles[address];
+        }
+        List<HotSpot> spots = new ArrayList<>(totals.values());
+        spots.sort((a, b) -> Long.compare(b.cycles, a.cycles));
+        return spots;
+    }
+
+    // Rapport texte : les limit instructions les plus coûteuses, puis les totaux par label
+    public String report(Program program, int limit) {
+        long total = Math.max(totalCycles(), 1);
+        StringBuilder sb = new StringBuilder();
+        sb.append("  Points chauds (instructions) :\n");
+        sb.append(String.format("  %-6s %-6s %-8s %12s %14s %7s%n", "Adr.", "Ligne", "Instr.", "Exécutions", "Cycles", "%"));
+        List<HotSpot> spots = hotSpots(program);
+        for (HotSpot spot : spots.subList(0, Math.min(limit, spots.size()))) {
+            sb.append(format(spot, total));
+        }
+        sb.append("  Par label :\n");
+        for (HotSpot spot : byLabel(program)) sb.append(format(spot, total));
+        return sb.toString();
+    }
+
+    private static String format(HotSpot spot, long total) {
+        return String.format("  %-6s %-6s %-8s %12d %14d %6.1f%%%n", CpuView.hex16(spot.address),
+                spot.line >= 0 ? Integer.toString(spot.line + 1) : "-", spot.name, spot.executions, spot.cycles,
+                100.0 * spot.cycles / total);
+    }
+}
@@ -0,0 +1,126 @@
+package cpu;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Classe Program
+// Programme assemblé (voir Assembler) : instructions décodées une seule fois lors de l'enregistrement
+// et rangées dans un cache indexé par adresse (PC), octets produits par chaque ligne du source
+// (instructions et données FCB/FDB), table des symboles, liste d'assemblage, erreurs et avertissements.
+public class Program {
+
+    public final ArrayList<DecodedOp> instructions = new ArrayList<>(); // Instructions dans l'ordre du source
+    public final Map<String, Integer> labels = new HashMap<>();          // Labels et leur ligne
+    public final Map<String, Integer> labelAddress = new HashMap<>();    // Label -> adresse
+    public final Map<String, Integer> symbols = new HashMap<>();         // Labels et symboles EQU -> valeur
+    public final List<Assembler.AssemblyError> errors = new ArrayList<>(); // Erreurs d'assemblage (vide si aucune)
+    public final List<Assembler.AssemblyError> warnings = new ArrayList<>(); // Avertissements (nombres ambigus)
+    final DecodedOp[] byAddress = new DecodedOp[Memory.SIZE]; // Cache indexé par PC
+    Assembler.Statement[] statements = new Assembler.Statement[0]; // Lignes du source découpées
+    int[] lineAddress = new int[0]; // Ligne -> adresse (première instruction à partir de cette ligne)
+    int[][] lineBytes = new int[0][]; // Octets produits par chaque ligne (null si aucun)
+    public int endAddress = Memory.ROM_START; // Adresse qui suit le dernier octet produit en ROM
+    private int romVersion = -1; // Version de la ROM lors du chargement
+
+    Program() {
+    }
+
+    // Assemble un code source complet (commentaires et labels compris), sans interface graphique
+    // (IllegalArgumentException avec toutes les erreurs, une par ligne, si le source est invalide)
+    public static Program fromSource(String source) {
+        Program program = Assembler.assemble(source);
+        if (!program.errors.isEmpty()) throw new IllegalArgumentException(program.errorReport());
+        return program;
+    }
+
+    // Toutes les erreurs, une par ligne
+    public String errorReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Assembler.AssemblyError error : errors) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(error);
+        }
+        return sb.toString();
+    }
+
+    // Décode une ligne de code en instruction prête à être exécutée (sans labels ni symboles)
+    public static DecodedOp decode(String line, int lineIndex) {
+        return Assembler.decode(line, lineIndex);
+    }
+
+    // Adresse de la première instruction située à partir d'une ligne du source
+    public int addressOfLine(int line) {
+        if (line < 0 || line >= lineAddress.length) return -1;
+        return lineAddress[line];
+    }
+
+    // Ligne du source de l'instruction commençant à une adresse (-1 si aucune)
+    public int lineOf(int address) {
+        DecodedOp op = at(address);
+        return op == null ? -1 : op.line;
+    }
+
+    // Charge le code machine et les données du programme en mémoire (ROM, et RAM pour les lignes placées par ORG)
+    public void load(Memory memory) {
+        memory.clearROM();
+        for (int line = 0; line < lineBytes.length; line++) {
+            int[] bytes = lineBytes[line];
+            if (bytes == null) continue;
+            for (int i = 0; i < bytes.length; i++) {
+                int address = lineAddress[line] + i;
+                if (Memory.isROM(address)) memory.writeROM(address, bytes[i]);
+                else memory.write8(address, bytes[i]);
+            }
+        }
+        romVersion = memory.getRomVersion();
+    }
+
+    // Le cache reste valide tant que la ROM n'a pas été réécrite depuis le chargement
+    public boolean isValid(Memory memory) {
+        return romVersion == memory.getRomVersion();
+    }
+
+    // Instruction décodée à une adresse donnée (null si aucune instruction ne commence ici)
+    public DecodedOp at(int pc) {
+        if (pc < 0 || pc >= byAddress.length) return null;
+        return byAddress[pc];
+    }
+
+    // Liste d'assemblage : numéro de ligne, adresse, octets produits et texte du source, puis la table des symboles
+    public String listing() {
+        StringBuilder sb = new StringBuilder();
+        for (int line = 0; line < statements.length; line++) {
+            Assembler.Statement statement = statements[line];
+            int[] bytes = lineBytes[line];
+            String address = "";
+            if ("EQU".equals(statement.mnemonic) && symbols.containsKey(statement.label)) {
+                address = "=" + CpuView.hex16(symbols.get(statement.label));
+            } else if (statement.mnemonic != null || statement.label != null) {
+                address = CpuView.hex16(lineAddress[line]);
+            }
+            sb.append(String.format("%5d  %-5s  %-12s %s", line + 1, address, hexBytes(bytes, 0), statement.text).stripTrailing()).append('\n');
+            for (int i = 4; bytes != null && i < bytes.length; i += 4) { // Données : 4 octets par ligne
+                sb.append(String.format("%5s  %-5s  %s%n", "", CpuView.hex16(lineAddress[line] + i), hexBytes(bytes, i)));
+            }
+        }
+        sb.append("\nSymboles :\n");
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(symbols).entrySet()) {
+            sb.append(String.format("  %-16s %s%n", entry.getKey(), CpuView.hex16(entry.getValue())));
+        }
+        return sb.toString();
+    }
+
+    // Jusqu'à 4 octets à partir de from, en hexadécimal
+    private static String hexBytes(int[] bytes, int from) {
+        if (bytes == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < Math.min(from + 4, bytes.length); i++) {
+            if (i > from) sb.append(' ');
+            sb.append(CpuView.hex8(bytes[i]));
+        }
+        return sb.toString();
+    }
+}
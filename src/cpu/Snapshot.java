@@ -0,0 +1,174 @@
+package cpu;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Classe Snapshot
+// Instantané immuable de la machine complète : registres, CC, cycles, pile d'appels et 64 Ko de mémoire.
+// La mémoire est découpée en pages de 256 octets partagées entre instantanés successifs
+// (copie sur écriture) : un instantané ne recopie que les pages modifiées depuis le précédent.
+//
+// Format binaire (octets de poids fort en premier) :
+//   "M6809SNP", version (1 octet)
+//   A, B, DP, CC, RI (1 octet chacun), X, Y, U, S, PC, dernière adresse (2 octets chacun)
+//   arrêté (1 octet), cycles (8 octets), fin de la ROM (4 octets)
+//   pile d'appels : nombre d'adresses (4 octets) puis les adresses (2 octets chacune)
+//   pages non nulles : bitmap des 256 pages (32 octets) puis le contenu de chaque page non nulle
+public final class Snapshot {
+
+    private static final byte[] MAGIC = { 'M', '6', '8', '0', '9', 'S', 'N', 'P' };
+    private static final int VERSION = 1;
+
+    public final int a, b, x, y, u, s, pc, dp, cc, ri;
+    public final boolean halted;
+    public final long cycles;
+    public final int lastAddress;  // Adresse de la dernière instruction exécutée
+    public final int romEnd;       // Fin (exclue) du programme en ROM
+    private final int[] callStack; // Pile d'appels, du bas vers le sommet
+    private final byte[][] pages;  // Pages de la mémoire (jamais modifiées)
+
+    Snapshot(CpuState state, int lastAddress, int[] callStack, byte[][] pages, int romEnd) {
+        this(state.a, state.b, state.x, state.y, state.u, state.s, state.pc, state.dp, state.getCC(), state.ri,
+                state.halted, state.cycles, lastAddress, romEnd, callStack, pages);
+    }
+
+    private Snapshot(int a, int b, int x, int y, int u, int s, int pc, int dp, int cc, int ri, boolean halted,
+                     long cycles, int lastAddress, int romEnd, int[] callStack, byte[][] pages) {
+        this.a = a; this.b = b;
+        this.x = x; this.y = y; this.u = u; this.s = s;
+        this.pc = pc; this.dp = dp; this.cc = cc; this.ri = ri;
+        this.halted = halted;
+        this.cycles = cycles;
+        this.lastAddress = lastAddress;
+        this.romEnd = romEnd;
+        this.callStack = callStack;
+        this.pages = pages;
+    }
+
+    // Lecture d'un octet de la mémoire de l'instantané
+    public int read8(int address) {
+        address &= 0xFFFF;
+        return pages[address / Memory.PAGE_SIZE][address % Memory.PAGE_SIZE] & 0xFF;
+    }
+
+    public int[] getCallStack() {
+        return callStack.clone();
+    }
+
+    // Remet les registres dans l'état de l'instantané
+    void restoreState(CpuState state) {
+        state.reset();
+        state.a = a; state.b = b;
+        state.x = x; state.y = y; state.u = u; state.s = s;
+        state.pc = pc; state.dp = dp; state.ri = ri;
+        state.setCC(cc);
+        state.halted = halted;
+        state.cycles = cycles;
+    }
+
+    byte[][] pages() {
+        return pages;
+    }
+
+    // Nombre de pages partagées avec un autre instantané (mesure de la copie sur écriture)
+    public int sharedPages(Snapshot other) {
+        int shared = 0;
+        for (int page = 0; page < Memory.PAGES; page++) {
+            if (pages[page] == other.pages[page]) shared++;
+        }
+        return shared;
+    }
+
+    // Écriture au format binaire
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(a); out.writeByte(b); out.writeByte(dp); out.writeByte(cc); out.writeByte(ri);
+        out.writeShort(x); out.writeShort(y); out.writeShort(u); out.writeShort(s); out.writeShort(pc);
+        out.writeShort(lastAddress);
+        out.writeBoolean(halted);
+        out.writeLong(cycles);
+        out.writeInt(romEnd);
+        out.writeInt(callStack.length);
+        for (int address : callStack) out.writeShort(address);
+
+        // Les pages entièrement nulles (la plus grande partie de la RAM en général) ne sont pas écrites
+        byte[] zero = new byte[Memory.PAGE_SIZE];
+        long[] present = new long[Memory.PAGES / 64];
+        for (int page = 0; page < Memory.PAGES; page++) {
+            if (!Arrays.equals(pages[page], zero)) present[page / 64] |= 1L << page;
+        }
+        for (long bits : present) out.writeLong(bits);
+        for (int page = 0; page < Memory.PAGES; page++) {
+            if ((present[page / 64] & (1L << page)) != 0) out.write(pages[page]);
+        }
+        out.flush();
+    }
+
+    public void write(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    // Lecture au format binaire (IllegalArgumentException si le contenu n'est pas un instantané valide)
+    public static Snapshot read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IllegalArgumentException("Ce fichier n'est pas un instantané 6809");
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IllegalArgumentException("Version d'instantané non supportée : " + version);
+
+            int a = in.readUnsignedByte(), b = in.readUnsignedByte(), dp = in.readUnsignedByte();
+            int cc = in.readUnsignedByte(), ri = in.readUnsignedByte();
+            int x = in.readUnsignedShort(), y = in.readUnsignedShort(), u = in.readUnsignedShort();
+            int s = in.readUnsignedShort(), pc = in.readUnsignedShort(), lastAddress = in.readUnsignedShort();
+            boolean halted = in.readBoolean();
+            long cycles = in.readLong();
+            int romEnd = in.readInt();
+            if (romEnd < Memory.ROM_START || romEnd > Memory.SIZE) {
+                throw new IllegalArgumentException("Fin de ROM invalide dans l'instantané : " + romEnd);
+            }
+            int depth = in.readInt();
+            if (depth < 0 || depth > Memory.SIZE) {
+                throw new IllegalArgumentException("Pile d'appels invalide dans l'instantané : " + depth);
+            }
+            int[] callStack = new int[depth];
+            for (int i = 0; i < depth; i++) callStack[i] = in.readUnsignedShort();
+
+            long[] present = new long[Memory.PAGES / 64];
+            for (int i = 0; i < present.length; i++) present[i] = in.readLong();
+            byte[] zero = new byte[Memory.PAGE_SIZE]; // Partagée par toutes les pages nulles
+            byte[][] pages = new byte[Memory.PAGES][];
+            for (int page = 0; page < Memory.PAGES; page++) {
+                if ((present[page / 64] & (1L << page)) != 0) {
+                    pages[page] = new byte[Memory.PAGE_SIZE];
+                    in.readFully(pages[page]);
+                } else {
+                    pages[page] = zero;
+                }
+            }
+            return new Snapshot(a, b, x, y, u, s, pc, dp, cc, ri, halted, cycles, lastAddress, romEnd, callStack, pages);
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Instantané tronqué");
+        }
+    }
+
+    public static Snapshot read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+}
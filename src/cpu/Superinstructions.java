@@ -0,0 +1,107 @@
+package cpu;
+
+// Classe Superinstructions
+// Passe de fusion sur un bloc décodé par Jit : les suites d'instructions fréquentes
+// (DECB / BNE, LDA / CMPA / BNE, LDA ,X / STA ,Y ...) deviennent une seule opération.
+// Les flags restent différés exactement comme pour les instructions séparées ; seul le test
+// du branchement est fait directement sur le registre, sans évaluer le registre CC.
+final class Superinstructions {
+
+    // Superinstructions connues (index des statistiques)
+    static final int INC_DEC_BRANCH = 0, CMP_BRANCH = 1, LD_CMP_BRANCH = 2, COPY = 3;
+    static final String[] NAMES = { "INC/DEC + BNE/BEQ", "CMP # + BNE/BEQ", "LD + CMP # + BNE/BEQ", "LD n,R / ST n,R" };
+
+    // Forme d'une instruction, renseignée par Jit pendant le décodage
+    static final int OTHER = 0, INC_DEC = 1, CMP_IMMEDIATE = 2, LOAD8 = 3, STORE8 = 4, BRANCH_Z = 5;
+
+    static final class Shape {
+        int kind = OTHER;
+        int opcode;           // Premier octet (opcode, ou préfixe de page)
+        int reg;              // Registre de l'instruction
+        int value;            // Valeur immédiate (CMP), +1 / -1 (INC / DEC)
+        int indexReg = -1;    // Mode indexé simple n,R sans effet de bord : registre d'index (-1 sinon)
+        int indexOffset;      // et son offset constant
+        int branchOpcode;     // BNE (26) ou BEQ (27)
+        int target, next;     // Cible et adresse suivante du branchement
+    }
+
+    // Résultat de la passe : une opération par superinstruction ou instruction restante
+    Jit.Op[] ops;
+    int[] lastInstruction;   // Index de la dernière instruction couverte par chaque opération
+    int count;
+    final int[] fusions = new int[NAMES.length]; // Superinstructions créées dans le bloc, par type
+    int[] missedPairs;       // Paires d'opcodes adjacentes non fusionnées (opcode1 << 8 | opcode2)
+    int missedCount;
+
+    // Parcourt les instructions du bloc et remplace les suites reconnues
+    Superinstructions(Jit.Op[] instructions, Shape[] shapes, int length) {
+        ops = new Jit.Op[length];
+        lastInstruction = new int[length];
+        missedPairs = new int[length];
+
+        int i = 0;
+        while (i < length) {
+            Shape s = shapes[i];
+            Shape s1 = i + 1 < length ? shapes[i + 1] : null;
+            Shape s2 = i + 2 < length ? shapes[i + 2] : null;
+
+            if (s.kind == INC_DEC && s1 != null && s1.kind == BRANCH_Z) {
+                add(incDecBranch(s, s1), i + 1, INC_DEC_BRANCH);
+                i += 2;
+            } else if (s.kind == LOAD8 && s1 != null && s1.kind == CMP_IMMEDIATE && s1.reg == s.reg
+                    && s2 != null && s2.kind == BRANCH_Z) {
+                add(Jit.pair(instructions[i], cmpBranch(s1, s2)), i + 2, LD_CMP_BRANCH);
+                i += 3;
+            } else if (s.kind == CMP_IMMEDIATE && s1 != null && s1.kind == BRANCH_Z) {
+                add(cmpBranch(s, s1), i + 1, CMP_BRANCH);
+                i += 2;
+            } else if (s.kind == LOAD8 && s.indexReg >= 0 && s1 != null && s1.kind == STORE8
+                    && s1.indexReg >= 0 && s1.reg == s.reg) {
+                add(copy(s, s1), i + 1, COPY);
+                i += 2;
+            } else {
+                if (s1 != null) missedPairs[missedCount++] = (s.opcode << 8) | s1.opcode;
+                add(instructions[i], i, -1);
+                i++;
+            }
+        }
+    }
+
+    private void add(Jit.Op op, int last, int fusion) {
+        ops[count] = op;
+        lastInstruction[count++] = last;
+        if (fusion >= 0) fusions[fusion]++;
+    }
+
+    // INC / DEC suivi de BNE / BEQ : Z se lit directement dans le registre
+    private static Jit.Op incDecBranch(Shape s, Shape branch) {
+        int reg = s.reg, target = branch.target, next = branch.next;
+        boolean bne = branch.branchOpcode == 0x26;
+        if (s.value < 0) {
+            if (bne) return c -> { c.dec(reg); if (c.state.get(reg) != 0) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+            return c -> { c.dec(reg); if (c.state.get(reg) == 0) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+        }
+        if (bne) return c -> { c.inc(reg); if (c.state.get(reg) != 0) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+        return c -> { c.inc(reg); if (c.state.get(reg) == 0) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+    }
+
+    // CMP immédiat suivi de BNE / BEQ : Z vaut (registre == valeur)
+    private static Jit.Op cmpBranch(Shape s, Shape branch) {
+        int reg = s.reg, value = s.value, target = branch.target, next = branch.next;
+        if (branch.branchOpcode == 0x26) {
+            return c -> { c.cmp(reg, value); if (c.state.get(reg) != value) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+        }
+        return c -> { c.cmp(reg, value); if (c.state.get(reg) == value) ByteInterpreter.jump(c, target); else c.state.pc = next; };
+    }
+
+    // Copie d'un octet entre deux adresses indexées (boucles de copie de tableau)
+    private static Jit.Op copy(Shape load, Shape store) {
+        int reg = load.reg;
+        int from = load.indexReg, fromOffset = load.indexOffset;
+        int to = store.indexReg, toOffset = store.indexOffset;
+        return c -> {
+            c.ld(reg, c.memory.read8((c.state.get(from) + fromOffset) & 0xFFFF));
+            c.st(reg, (c.state.get(to) + toOffset) & 0xFFFF);
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package cpu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Classe TraceReader
+// Lecture d'une trace écrite par TraceWriter : le fichier est projeté en mémoire en lecture seule
+// et chaque enregistrement est décodé dans un objet Record réutilisé (aucune allocation par lecture).
+public final class TraceReader implements Closeable {
+
+    // Enregistrement décodé (réutilisable d'une lecture à l'autre)
+    public static final class Record {
+        public long index;          // Numéro de l'instruction dans la trace
+        public long cycles;         // Cycles avant l'instruction
+        public int pc;
+        public final int[] bytes = new int[4]; // Premiers octets de l'instruction
+        public int a, b, dp, cc, x, y, u, s;   // Registres après l'instruction
+        public int address;         // Adresse de l'opérande en mémoire
+        public int value;           // Valeur de l'opérande après l'instruction
+        public int access;          // TraceWriter.ACCESS_NONE, ACCESS_READ ou ACCESS_WRITE
+        public boolean wide;        // Opérande sur 16 bits
+
+        // Une ligne lisible : numéro, cycles, PC, octets, registres et accès mémoire
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%8d %10d  %s ", index, cycles, CpuView.hex16(pc)));
+            for (int value : bytes) sb.append(' ').append(CpuView.hex8(value));
+            sb.append("  A=").append(CpuView.hex8(a)).append(" B=").append(CpuView.hex8(b))
+              .append(" X=").append(CpuView.hex16(x)).append(" Y=").append(CpuView.hex16(y))
+              .append(" U=").append(CpuView.hex16(u)).append(" S=").append(CpuView.hex16(s))
+              .append(" DP=").append(CpuView.hex8(dp)).append(" CC=").append(CpuView.hex8(cc));
+            if (access != TraceWriter.ACCESS_NONE) {
+                sb.append(access == TraceWriter.ACCESS_WRITE ? "  W " : "  R ").append(CpuView.hex16(address))
+                  .append('=').append(wide ? CpuView.hex16(value) : CpuView.hex8(value));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final long CHUNK = 1L << 30; // Taille maximale d'une projection (multiple de RECORD_SIZE)
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long count;
+
+    public TraceReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < TraceWriter.HEADER_SIZE) {
+            channel.close();
+            throw new IllegalArgumentException("Trace tronquée : " + file);
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TraceWriter.HEADER_SIZE);
+        byte[] magic = new byte[TraceWriter.MAGIC.length];
+        header.get(magic);
+        int version = header.getInt(), recordSize = header.getInt();
+        long recorded = header.getLong();
+        if (!Arrays.equals(magic, TraceWriter.MAGIC) || version != TraceWriter.VERSION || recordSize != TraceWriter.RECORD_SIZE) {
+            channel.close();
+            throw new IllegalArgumentException("Ce fichier n'est pas une trace 6809 (version " + TraceWriter.VERSION + ") : " + file);
+        }
+
+        // Nombre d'enregistrements : celui de l'en-tête, ou la taille du fichier si la trace n'a pas été fermée
+        long available = (size - TraceWriter.HEADER_SIZE) / TraceWriter.RECORD_SIZE;
+        count = recorded > 0 ? Math.min(recorded, available) : available;
+
+        long bytes = count * TraceWriter.RECORD_SIZE;
+        chunks = new MappedByteBuffer[(int) ((bytes + CHUNK - 1) / CHUNK)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = i * CHUNK;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, TraceWriter.HEADER_SIZE + start, Math.min(CHUNK, bytes - start));
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // Décode l'enregistrement index dans record, et retourne record
+    public Record read(long index, Record record) {
+        if (index < 0 || index >= count) throw new IllegalArgumentException("Enregistrement hors de la trace : " + index);
+        long offset = index * TraceWriter.RECORD_SIZE;
+        MappedByteBuffer in = chunks[(int) (offset / CHUNK)];
+        int at = (int) (offset % CHUNK);
+
+        record.index = index;
+        record.cycles = in.getLong(at);
+        record.pc = in.getShort(at + 8) & 0xFFFF;
+        for (int i = 0; i < 4; i++) record.bytes[i] = in.get(at + 10 + i) & 0xFF;
+        record.a = in.get(at + 14) & 0xFF;
+        record.b = in.get(at + 15) & 0xFF;
+        record.dp = in.get(at + 16) & 0xFF;
+        record.cc = in.get(at + 17) & 0xFF;
+        record.x = in.getShort(at + 18) & 0xFFFF;
+        record.y = in.getShort(at + 20) & 0xFFFF;
+        record.u = in.getShort(at + 22) & 0xFFFF;
+        record.s = in.getShort(at + 24) & 0xFFFF;
+        record.address = in.getShort(at + 26) & 0xFFFF;
+        record.value = in.getShort(at + 28) & 0xFFFF;
+        int access = in.get(at + 30) & 0xFF;
+        record.access = access & ~TraceWriter.ACCESS_WIDE;
+        record.wide = (access & TraceWriter.ACCESS_WIDE) != 0;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
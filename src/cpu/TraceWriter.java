@@ -0,0 +1,127 @@
+package cpu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Classe TraceWriter
+// Trace binaire de l'exécution dans un fichier projeté en mémoire (FileChannel.map) :
+// un enregistrement de taille fixe par instruction, écrit directement dans la projection,
+// sans aucune allocation par instruction. Le fichier est projeté par tranches de 64 Mo.
+//
+// Format (octets de poids fort en premier) :
+//   en-tête de 32 octets : "M6809TRC", version (4 octets), taille d'un enregistrement (4 octets),
+//                          nombre d'enregistrements (8 octets, écrit à la fermeture), réservé (8 octets)
+//   enregistrements de 32 octets :
+//     0  cycles avant l'instruction (8)     8  PC de l'instruction (2)
+//     10 4 premiers octets à PC (4)         14 A, B, DP, CC après l'instruction (1 chacun)
+//     18 X, Y, U, S après l'instruction (2 chacun)
+//     26 adresse de l'opérande en mémoire (2)   28 valeur de l'opérande après l'instruction (2)
+//     30 accès : 0 aucun, 1 lecture, 2 écriture, + 0x80 si 16 bits (1)   31 réservé (1)
+public final class TraceWriter implements Closeable {
+
+    public static final byte[] MAGIC = { 'M', '6', '8', '0', '9', 'T', 'R', 'C' };
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 32;
+    public static final int ACCESS_NONE = 0, ACCESS_READ = 1, ACCESS_WRITE = 2, ACCESS_WIDE = 0x80;
+
+    private static final long CHUNK = 64L << 20; // Taille de chaque projection (multiple de RECORD_SIZE)
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;  // Projection courante
+    private long bufferStart;         // Position de la projection courante dans le fichier
+    private long count;               // Enregistrements écrits
+
+    public TraceWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        map(0);
+        buffer.put(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(RECORD_SIZE);
+        buffer.putLong(0);
+        buffer.putLong(0);
+    }
+
+    private void map(long start) throws IOException {
+        bufferStart = start;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, CHUNK);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // Enregistre l'instruction qui vient d'être exécutée (pc et cycles : valeurs avant l'instruction)
+    void record(CPU cpu, int pc, long cycles) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            try {
+                map(bufferStart + buffer.position());
+            } catch (IOException e) {
+                throw new IllegalStateException("Écriture de la trace impossible : " + e.getMessage());
+            }
+        }
+
+        CpuState state = cpu.state;
+        Memory memory = cpu.memory;
+        MappedByteBuffer out = buffer;
+        int first = memory.read8(pc), second = memory.read8(pc + 1);
+        out.putLong(cycles);
+        out.putShort((short) pc);
+        out.putInt((first << 24) | (second << 16) | (memory.read8(pc + 2) << 8) | memory.read8(pc + 3));
+        out.putInt((state.a << 24) | (state.b << 16) | (state.dp << 8) | state.getCC());
+        out.putShort((short) state.x);
+        out.putShort((short) state.y);
+        out.putShort((short) state.u);
+        out.putShort((short) state.s);
+
+        int address = cpu.operandAddress;
+        if (address < 0) {
+            out.putInt(0);
+            out.putShort((short) ACCESS_NONE);
+        } else {
+            int opcode = first == 0x10 || first == 0x11 ? second : first;
+            boolean wide = isWide(first, second);
+            out.putShort((short) address);
+            out.putShort((short) (wide ? memory.read16(address) : memory.read8(address)));
+            out.put((byte) ((isStore(opcode) ? ACCESS_WRITE : ACCESS_READ) | (wide ? ACCESS_WIDE : 0)));
+            out.put((byte) 0);
+        }
+        count++;
+    }
+
+    // Opérande sur 16 bits : instructions préfixées (LDY, STY, LDS, STS) et colonnes E et F (X, U)
+    static boolean isWide(int first, int second) {
+        return first == 0x10 || first == 0x11 || (first & 0x0E) == 0x0E;
+    }
+
+    // Stockages : colonnes 7 et F des lignes 9 à F (STA, STB, STX, STU, STY, STS)
+    static boolean isStore(int opcode) {
+        return opcode >= 0x90 && ((opcode & 0x0F) == 0x07 || (opcode & 0x0F) == 0x0F);
+    }
+
+    // Écrit le nombre d'enregistrements, ramène le fichier à sa taille utile et le ferme
+    @Override
+    public void close() throws IOException {
+        if (bufferStart == 0) {
+            buffer.putLong(16, count);
+        } else {
+            channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).putLong(16, count);
+        }
+        buffer.force();
+        buffer = null;
+        try {
+            channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+        } catch (IOException e) {
+            // Windows refuse de tronquer un fichier encore projeté : la fin reste à zéro,
+            // le nombre d'enregistrements de l'en-tête fait foi
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,352 @@
+package main;
+
+import cpu.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Classe BatchRunner
+// Point d'entrée en ligne de commande (sans interface graphique) :
+// assemble et exécute un ou plusieurs fichiers .asmb, puis affiche l'état final.
+// Un fichier .snap (instantané, voir cpu.Snapshot) reprend l'exécution là où elle s'était arrêtée.
+//
+// Utilisation : java main.BatchRunner [options] fichier.asmb|fichier.snap|dossier ...
+//   --limit N         nombre maximal d'instructions par programme (défaut 10000000)
+//   --regs            affiche les registres à la fin de chaque programme
+//   --mem DEBUT:FIN   affiche la mémoire entre deux adresses hexadécimales (incluses)
+//   --quiet           n'affiche que les erreurs
+//   --no-jit          exécute avec l'interpréteur seul (sans compilation des blocs chauds)
+//   --diff            compare chaque exécution avec l'exécution de référence (programme décodé)
+//   --stats           affiche les statistiques du JIT (superinstructions fusionnées et exécutées)
+//   --save F.snap     enregistre l'état final dans un instantané (un seul fichier en entrée)
+//   --profile         affiche les points chauds (instructions et labels classés par cycles)
+//   --trace F.trace   enregistre la trace binaire de l'exécution (un seul fichier en entrée, voir main.TraceDump)
+//   --listing         affiche la liste d'assemblage (adresses, octets produits, table des symboles)
+//
+// Code de sortie : 0 si tout est correct, sinon le code le plus grave rencontré.
+public class BatchRunner {
+
+    // Codes de sortie
+    public static final int OK = 0;
+    public static final int LIMIT_REACHED = 1;   // Le programme n'a pas atteint END avant la limite
+    public static final int RUNTIME_ERROR = 2;   // Erreur pendant l'exécution
+    public static final int ASSEMBLY_ERROR = 3;  // Erreur de syntaxe ou d'assemblage
+    public static final int IO_ERROR = 4;        // Fichier illisible
+    public static final int USAGE_ERROR = 64;    // Arguments invalides
+
+    // Options d'exécution d'un fichier (aucun état partagé : un même objet sert à plusieurs threads)
+    public static class Options {
+        public long limit = 10_000_000L; // Nombre maximal d'instructions
+        public boolean jit = true;       // Compilation des blocs chauds
+        public boolean diff = false;     // Comparaison avec l'exécution de référence (programme décodé)
+        public File trace;               // Trace binaire de l'exécution (null : aucune)
+        public boolean profile = false;  // Profil de l'exécution (rapport dans le résultat)
+        public int memStart = -1, memEnd = -1; // Plage mémoire vidée dans le résultat (memStart < 0 : aucune)
+        public boolean listing = false;  // Liste d'assemblage dans le résultat
+        public boolean stats = false;    // Statistiques du JIT dans le résultat
+        public boolean snapshot = false; // Instantané de l'état final dans le résultat
+    }
+
+    final Options options = new Options();
+    boolean dumpRegisters = false;
+    boolean quiet = false;
+    File save;            // Instantané de l'état final (null : aucun)
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        ArrayList<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--limit": runner.options.limit = Long.parseLong(args[++i]); break;
+                    case "--regs":  runner.dumpRegisters = true; break;
+                    case "--quiet": runner.quiet = true; break;
+                    case "--no-jit": runner.options.jit = false; break;
+                    case "--diff":  runner.options.diff = true; break;
+                    case "--stats": runner.options.stats = true; break;
+                    case "--save":  runner.save = new File(args[++i]); break;
+                    case "--profile": runner.options.profile = true; break;
+                    case "--trace": runner.options.trace = new File(args[++i]); break;
+                    case "--listing": runner.options.listing = true; break;
+                    case "--mem":
+                        String[] range = args[++i].split(":");
+                        int memStart = Integer.parseInt(range[0].replace("$", ""), 16);
+                        int memEnd = Integer.parseInt(range[range.length - 1].replace("$", ""), 16);
+                        if (memStart < 0 || memEnd > 0xFFFF || memStart > memEnd)
+                            throw new IllegalArgumentException("plage mémoire invalide : " + args[i]);
+                        runner.options.memStart = memStart;
+                        runner.options.memEnd = memEnd;
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) throw new IllegalArgumentException("option inconnue : " + args[i]);
+                        collect(new File(args[i]), files);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : valeur manquante après " + args[args.length - 1]);
+            usage();
+            System.exit(USAGE_ERROR);
+        } catch (IllegalArgumentException e) { // Nombre invalide ou option inconnue
+            System.err.println("Erreur : " + e.getMessage());
+            usage();
+            System.exit(USAGE_ERROR);
+        }
+
+        if (files.isEmpty()) {
+            usage();
+            System.exit(USAGE_ERROR);
+        }
+        if (runner.save != null && files.size() != 1) {
+            System.err.println("Erreur : --save demande un seul fichier en entrée");
+            System.exit(USAGE_ERROR);
+        }
+        if (runner.options.trace != null && files.size() != 1) {
+            System.err.println("Erreur : --trace demande un seul fichier en entrée");
+            System.exit(USAGE_ERROR);
+        }
+        runner.options.snapshot = runner.save != null;
+
+        int exitCode = OK;
+        for (File file : files) {
+            exitCode = Math.max(exitCode, runner.runFile(file));
+        }
+        System.exit(exitCode);
+    }
+
+    // Ajoute un fichier, ou tous les fichiers .asmb d'un dossier (triés par nom)
+    static void collect(File file, ArrayList<File> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles((dir, name) -> name.toLowerCase().endsWith(".asmb"));
+            if (children == null) return;
+            Arrays.sort(children);
+            files.addAll(Arrays.asList(children));
+        } else {
+            files.add(file);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Utilisation : java main.BatchRunner [--limit N] [--regs] [--mem DEBUT:FIN] [--quiet] [--no-jit] [--diff] [--stats] [--save F.snap] [--profile] [--trace F.trace] [--listing] fichier.asmb|fichier.snap|dossier ...");
+    }
+
+    // Résultat de l'exécution d'un fichier (aucun état partagé : utilisable en parallèle).
+    // Seules des copies de l'état final sont gardées, pas le CPU et ses 64 Ko : un grand nombre
+    // de résultats peut rester en mémoire jusqu'au rapport (voir Grader).
+    public static class Result {
+        public final File file;
+        public int exitCode = OK;
+        public String status = "terminé";  // Description du résultat
+        public long instructions;          // Instructions exécutées
+        public long cycles;                // Cycles d'horloge du 6809 émulé pendant l'exécution
+        public long nanos;                 // Durée d'exécution
+        public CpuState state;             // Registres finaux (copie ; null si le programme n'a pas été chargé)
+        public String memory;              // Vidage de la plage Options.memStart..memEnd (null si aucune)
+        public String listing;             // Liste d'assemblage (Options.listing, null sans programme source)
+        public String statistics;          // Statistiques du JIT (Options.stats, null sans JIT)
+        public String profile;             // Points chauds (Options.profile)
+        public Snapshot snapshot;          // Instantané de l'état final (Options.snapshot)
+        public List<Assembler.AssemblyError> warnings = List.of(); // Avertissements d'assemblage
+
+        Result(File file) {
+            this.file = file;
+        }
+    }
+
+    // Assemble et exécute un fichier sur un CPU et une mémoire qui lui sont propres
+    public static Result execute(File file, Options options) {
+        if (file.getName().toLowerCase().endsWith(".snap")) return resume(file, options);
+        Result result = new Result(file);
+        String source;
+        try {
+            source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            result.exitCode = IO_ERROR;
+            result.status = "lecture impossible : " + e.getMessage();
+            return result;
+        }
+
+        Program program;
+        try {
+            program = Program.fromSource(source);
+        } catch (IllegalArgumentException e) {
+            result.exitCode = ASSEMBLY_ERROR;
+            result.status = "erreur d'assemblage : " + e.getMessage();
+            return result;
+        }
+        result.warnings = program.warnings;
+
+        CPU cpu = new CPU(new Memory());
+        cpu.setJitEnabled(options.jit);
+        if (options.profile) cpu.setProfiler(new Profiler());
+        cpu.load(program);
+        run(cpu, options, result);
+
+        if (options.diff && result.exitCode != RUNTIME_ERROR) {
+            String difference = compareWithReference(program, cpu, options.limit);
+            if (difference != null) {
+                result.exitCode = RUNTIME_ERROR;
+                result.status = "divergence avec l'exécution de référence : " + difference;
+            }
+        }
+        keep(cpu, options, result);
+        return result;
+    }
+
+    // Reprend l'exécution depuis un instantané (pas de comparaison : le source n'est pas disponible)
+    static Result resume(File file, Options options) {
+        Result result = new Result(file);
+        Snapshot snapshot;
+        try {
+            snapshot = Snapshot.read(file.toPath());
+        } catch (IOException e) {
+            result.exitCode = IO_ERROR;
+            result.status = "lecture impossible : " + e.getMessage();
+            return result;
+        } catch (IllegalArgumentException e) {
+            result.exitCode = IO_ERROR;
+            result.status = "instantané invalide : " + e.getMessage();
+            return result;
+        }
+
+        CPU cpu = new CPU(new Memory());
+        cpu.setJitEnabled(options.jit);
+        if (options.profile) cpu.setProfiler(new Profiler());
+        cpu.restore(snapshot);
+        run(cpu, options, result);
+        keep(cpu, options, result);
+        return result;
+    }
+
+    // Copie dans le résultat la partie de l'état final demandée par les options (le CPU n'est pas gardé)
+    private static void keep(CPU cpu, Options options, Result result) {
+        result.state = cpu.state.copy();
+        if (options.memStart >= 0) result.memory = formatMemory(cpu.memory, options.memStart, options.memEnd);
+        if (options.listing && cpu.getProgram() != null) result.listing = cpu.getProgram().listing();
+        if (options.stats && cpu.isJitEnabled()) result.statistics = cpu.getJit().statistics();
+        if (options.profile) result.profile = cpu.getProfiler().report(cpu.getProgram(), 10);
+        if (options.snapshot) result.snapshot = cpu.snapshot();
+    }
+
+    // Exécute au plus options.limit instructions et complète le résultat
+    private static void run(CPU cpu, Options options, Result result) {
+        long limit = options.limit;
+        TraceWriter writer = null;
+        if (options.trace != null) {
+            try {
+                writer = new TraceWriter(options.trace.toPath());
+            } catch (IOException e) {
+                result.exitCode = IO_ERROR;
+                result.status = "trace impossible : " + e.getMessage();
+                return;
+            }
+            cpu.setTrace(writer);
+        }
+        long cycles = cpu.state.cycles;
+        long start = System.nanoTime();
+        try {
+            result.instructions = cpu.run(limit);
+            if (!cpu.state.halted) {
+                result.exitCode = LIMIT_REACHED;
+                result.status = "limite de " + limit + " instructions atteinte";
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            result.exitCode = RUNTIME_ERROR;
+            result.status = "erreur d'exécution : " + e.getMessage();
+        }
+        result.nanos = System.nanoTime() - start;
+        result.cycles = cpu.state.cycles - cycles;
+
+        if (writer != null) {
+            cpu.setTrace(null);
+            try {
+                writer.close();
+            } catch (IOException e) {
+                result.exitCode = Math.max(result.exitCode, IO_ERROR);
+                result.status = "écriture de la trace impossible : " + e.getMessage();
+            }
+        }
+    }
+
+    // Réexécute le programme avec CPU.executeInstruction (programme décodé) et compare l'état final
+    static String compareWithReference(Program program, CPU cpu, long limit) {
+        CPU reference = new CPU(new Memory());
+        reference.load(program);
+        try {
+            reference.runDecoded(limit);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "erreur de l'exécution de référence : " + e.getMessage();
+        }
+
+        String expected = formatRegisters(reference.state), actual = formatRegisters(cpu.state);
+        if (!expected.equals(actual)) return "registres" + actual + " au lieu de" + expected;
+        if (cpu.state.cycles != reference.state.cycles) {
+            return cpu.state.cycles + " cycles au lieu de " + reference.state.cycles;
+        }
+        for (int address = 0; address < Memory.SIZE; address++) {
+            if (cpu.memory.read8(address) != reference.memory.read8(address)) {
+                return "mémoire " + CpuView.hex16(address) + " = " + CpuView.hex8(cpu.memory.read8(address))
+                        + " au lieu de " + CpuView.hex8(reference.memory.read8(address));
+            }
+        }
+        return null;
+    }
+
+    // Assemble et exécute un fichier, affiche le résultat et retourne son code de sortie
+    int runFile(File file) {
+        Result result = execute(file, options);
+
+        for (Assembler.AssemblyError warning : result.warnings) System.err.println(file + " : attention : " + warning);
+        if (result.exitCode != OK) System.err.println(file + " : " + result.status);
+        if (!quiet) {
+            if (result.exitCode == OK) {
+                System.out.println(file + " : " + result.status + " (" + result.instructions + " instructions, "
+                        + result.cycles + " cycles, " + (result.nanos / 1000) + " µs)");
+            }
+            if (result.state != null) {
+                if (result.listing != null) System.out.print(result.listing);
+                if (dumpRegisters) System.out.println(formatRegisters(result.state));
+                if (result.memory != null) System.out.print(result.memory);
+                if (result.statistics != null) System.out.print(result.statistics);
+                if (result.profile != null) System.out.print(result.profile);
+            }
+        }
+        if (save != null && result.snapshot != null) {
+            try {
+                result.snapshot.write(save.toPath());
+            } catch (IOException e) {
+                System.err.println(save + " : écriture impossible : " + e.getMessage());
+                return Math.max(result.exitCode, IO_ERROR);
+            }
+        }
+        return result.exitCode;
+    }
+
+    // Registres et flags sur une ligne
+    public static String formatRegisters(CpuState state) {
+        return "  A=" + CpuView.hex8(state.a) + " B=" + CpuView.hex8(state.b)
+                + " D=" + CpuView.hex16(state.getD())
+                + " X=" + CpuView.hex16(state.x) + " Y=" + CpuView.hex16(state.y)
+                + " U=" + CpuView.hex16(state.u) + " S=" + CpuView.hex16(state.s)
+                + " PC=" + CpuView.hex16(state.pc) + " DP=" + CpuView.hex8(state.dp)
+                + " CC=" + CpuView.hex8(state.getCC()) + " (EFHINZVC=" + CpuView.binary8(state.getCC()) + ")";
+    }
+
+    // Vidage hexadécimal de la mémoire, 16 octets par ligne
+    public static String formatMemory(Memory memory, int start, int end) {
+        StringBuilder sb = new StringBuilder();
+        for (int row = start & ~0xF; row <= end; row += 16) {
+            sb.append("  ").append(CpuView.hex16(row)).append(':');
+            for (int address = row; address < row + 16; address++) {
+                if (address < start || address > end) sb.append("   ");
+                else sb.append(' ').append(CpuView.hex8(memory.read8(address)));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
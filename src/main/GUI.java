@@ -5,7 +5,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.border.EmptyBorder;
 
+import cpu.ExecutionEngine;
+import cpu.LiveAssembler;
 import ui.CustomScroller;
+import ui.LineGutter;
 
 // Classe GUI
 // Fenêtre principale de l'application de simulation Moto 6809
@@ -14,9 +17,16 @@ public class GUI extends JFrame {
 
     // ======================= Composants principaux =======================
     public JTextArea codeEditor;               // Zone d’édition du code assembleur
+    public LineGutter gutter;                  // Marge de l'éditeur (numéros de ligne, points d'arrêt)
+    public LiveAssembler assembler;            // Assemblage pendant la frappe (erreurs soulignées)
     public JTextArea notesArea;                // Zone de notes (lecture seule)
     public JButton btnRun, btnStep, btnSave;   // Boutons de contrôle
+    public JButton btnStop;                    // Arrêt de l'exécution
+    public JButton btnBack, btnReverse;        // Pas arrière et retour arrière continu
+    public JButton btnProfile;                 // Rapport des points chauds
+    public JButton btnHeatmap;                 // Carte de chaleur de la mémoire
     public JButton btnNew, btnOpen, btnExit;   // Boutons de gestion de fichiers
+    public JComboBox<ExecutionEngine.Speed> speedSelector; // Vitesse d'exécution (turbo, temps réel, animé)
     public int introDuration = 11;             // Durée de l’introduction (secondes)
 
     // Constructeur principal
@@ -41,6 +51,7 @@ public class GUI extends JFrame {
         Color foreground = Color.WHITE;
         Color runColor   = new Color(0, 153, 76);   
         Color stepColor  = new Color(255, 153, 51); 
+        Color stopColor  = new Color(204, 0, 102);
         Color saveColor  = new Color(0, 102, 204);  
         Color newColor   = new Color(153, 51, 255); 
         Color exitColor  = new Color(255, 51, 51);
@@ -84,6 +95,13 @@ public class GUI extends JFrame {
         editorScroll.setBorder(BorderFactory.createEmptyBorder());
         editorScroll.getVerticalScrollBar().setUI(new CustomScroller());
 
+        // Marge : numéros de ligne, clic pour poser ou retirer un point d'arrêt
+        gutter = new LineGutter(codeEditor);
+        editorScroll.setRowHeaderView(gutter);
+
+        // Assemblage en arrière-plan après chaque pause de la frappe
+        assembler = new LiveAssembler(codeEditor);
+
         editorPanel.add(editorScroll, BorderLayout.CENTER);
 
         // ======================= Zone de notes utilisateur =======================
@@ -113,13 +131,18 @@ public class GUI extends JFrame {
         cpuContainer.setBorder(new EmptyBorder(20, 20, 20, 20));
 
         // Barre de boutons de contrôle
-        JPanel controlBar = new JPanel(new GridLayout(1, 6, 18, 5));
+        JPanel controlBar = new JPanel(new GridLayout(1, 12, 10, 5));
         controlBar.setBackground(background);
         controlBar.setBorder(new EmptyBorder(0, 0, 10, 0)); 
 
         // Création des boutons de contrôle avec couleurs, texte et écouteur partagé
         btnRun   = createControlButton("Exécuter ▶️", runColor, foreground, buttonHover, accent, sharedListener);
         btnStep  = createControlButton("Pas à Pas 👣", stepColor, foreground, buttonHover, accent, sharedListener);
+        btnStop  = createControlButton("Arrêter ⏹", stopColor, foreground, buttonHover, accent, sharedListener);
+        btnBack  = createControlButton("Arrière ⏮", stepColor, foreground, buttonHover, accent, sharedListener);
+        btnReverse = createControlButton("Retour ⏪", stepColor, foreground, buttonHover, accent, sharedListener);
+        btnProfile = createControlButton("Profil 📊", openColor, foreground, buttonHover, accent, sharedListener);
+        btnHeatmap = createControlButton("Carte 🗺", openColor, foreground, buttonHover, accent, sharedListener);
         btnSave  = createControlButton("Enregistrer ✔", saveColor, foreground, buttonHover, accent, sharedListener);
         btnNew   = createControlButton("Exporter 📤", newColor, foreground, buttonHover, accent, sharedListener);
         btnOpen  = createControlButton("Importer 📥", openColor, foreground, buttonHover, accent, sharedListener);
@@ -130,16 +153,41 @@ public class GUI extends JFrame {
         btnOpen.setActionCommand("OPEN");
         btnExit.setActionCommand("EXIT");
         btnStep.setActionCommand("STEP");
+        btnStop.setActionCommand("STOP");
+        btnBack.setActionCommand("BACK");
+        btnReverse.setActionCommand("REVERSE");
+        btnProfile.setActionCommand("PROFILE");
+        btnHeatmap.setActionCommand("HEATMAP");
         btnSave.setActionCommand("SAVE");
         btnNew.setActionCommand("NEW");
 
+        // Sélecteur de vitesse : changement possible pendant l'exécution
+        speedSelector = new JComboBox<>(ExecutionEngine.SPEEDS);
+        speedSelector.setBackground(background);
+        speedSelector.setForeground(accent);
+        speedSelector.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        speedSelector.setFocusable(false);
+        speedSelector.setToolTipText("Vitesse d'exécution");
+        speedSelector.setActionCommand("SPEED");
+        speedSelector.addActionListener(sharedListener);
+
         // Par défaut, les boutons d'exécution sont désactivés
         btnRun.setEnabled(false);
         btnStep.setEnabled(false);
+        btnStop.setEnabled(false);
+        btnBack.setEnabled(false);
+        btnReverse.setEnabled(false);
+        btnProfile.setEnabled(false);
 
         // Ajout des boutons dans la barre de contrôle
         controlBar.add(btnRun);
         controlBar.add(btnStep);
+        controlBar.add(btnBack);
+        controlBar.add(btnReverse);
+        controlBar.add(btnStop);
+        controlBar.add(speedSelector);
+        controlBar.add(btnProfile);
+        controlBar.add(btnHeatmap);
         controlBar.add(btnSave);
         controlBar.add(btnNew);
         controlBar.add(btnOpen);
@@ -314,6 +362,18 @@ public class GUI extends JFrame {
             public void actionPerformed(ActionEvent e) { btnStep.doClick(); }
         });
 
+        // Retour arrière -> Pas arrière, Ctrl+Retour arrière -> Retour arrière continu
+        im.put(KeyStroke.getKeyStroke("BACK_SPACE"), "BACK");
+        am.put("BACK", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { btnBack.doClick(); }
+        });
+        im.put(KeyStroke.getKeyStroke("control BACK_SPACE"), "REVERSE");
+        am.put("REVERSE", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { btnReverse.doClick(); }
+        });
+
         // Ctrl+N -> Nouveau
         im.put(KeyStroke.getKeyStroke("control N"), "NEW");
         am.put("NEW", new AbstractAction() {
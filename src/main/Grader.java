@@ -0,0 +1,166 @@
+package main;
+
+import cpu.CpuState;
+import cpu.CpuView;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Classe Grader
+// Exécution en parallèle d'un grand nombre de programmes indépendants (correction en masse) :
+// chaque fichier est assemblé et exécuté sur son propre CPU et sa propre mémoire,
+// les résultats sont ensuite rassemblés dans un rapport (console et CSV optionnel).
+//
+// Utilisation : java main.Grader [--limit N] [--threads N] [--csv rapport.csv] fichier.asmb|dossier ...
+public class Grader {
+
+    public static void main(String[] args) {
+        long limit = 10_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String csv = null;
+        ArrayList<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--limit":   limit = Long.parseLong(args[++i]); break;
+                    case "--threads": threads = Math.max(1, Integer.parseInt(args[++i])); break;
+                    case "--csv":     csv = args[++i]; break;
+                    default:
+                        if (args[i].startsWith("--")) throw new IllegalArgumentException("option inconnue : " + args[i]);
+                        BatchRunner.collect(new File(args[i]), files);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : valeur manquante après " + args[args.length - 1]);
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        } catch (IllegalArgumentException e) { // Nombre invalide ou option inconnue
+            System.err.println("Erreur : " + e.getMessage());
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        }
+
+        if (files.isEmpty()) {
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        }
+
+        long start = System.nanoTime();
+        List<BatchRunner.Result> results = grade(files, limit, threads);
+        long wall = System.nanoTime() - start;
+
+        printReport(results, threads, wall);
+        if (csv != null) {
+            try {
+                writeCsv(results, new File(csv));
+            } catch (IOException e) {
+                System.err.println("Écriture du rapport impossible : " + e.getMessage());
+                System.exit(BatchRunner.IO_ERROR);
+            }
+        }
+
+        int exitCode = BatchRunner.OK;
+        for (BatchRunner.Result result : results) exitCode = Math.max(exitCode, result.exitCode);
+        System.exit(exitCode);
+    }
+
+    private static void usage() {
+        System.err.println("Utilisation : java main.Grader [--limit N] [--threads N] [--csv rapport.csv] fichier.asmb|dossier ...");
+    }
+
+    // Exécute tous les fichiers sur un pool de threads, résultats dans l'ordre des fichiers
+    public static List<BatchRunner.Result> grade(List<File> files, long limit, int threads) {
+        BatchRunner.Options options = new BatchRunner.Options();
+        options.limit = limit;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<BatchRunner.Result>> futures = new ArrayList<>();
+            for (File file : files) {
+                futures.add(pool.submit(() -> BatchRunner.execute(file, options)));
+            }
+
+            ArrayList<BatchRunner.Result> results = new ArrayList<>();
+            for (Future<BatchRunner.Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Erreur inattendue pendant la correction", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Correction interrompue", e);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Rapport console : une ligne par programme puis un résumé
+    private static void printReport(List<BatchRunner.Result> results, int threads, long wall) {
+        int[] counts = new int[BatchRunner.IO_ERROR + 1];
+        long instructions = 0, cpuNanos = 0;
+
+        for (BatchRunner.Result result : results) {
+            counts[result.exitCode]++;
+            instructions += result.instructions;
+            cpuNanos += result.nanos;
+            String registers = result.state == null ? "" : " " + registers(result.state);
+            System.out.println((result.exitCode == BatchRunner.OK ? "OK     " : "ÉCHEC  ") + result.file
+                    + " : " + result.status + " (" + result.instructions + " instructions, " + result.cycles + " cycles)" + registers);
+        }
+
+        System.out.println();
+        System.out.println("Programmes : " + results.size() + " sur " + threads + " threads");
+        System.out.println("  terminés : " + counts[BatchRunner.OK]
+                + ", limite atteinte : " + counts[BatchRunner.LIMIT_REACHED]
+                + ", erreurs d'exécution : " + counts[BatchRunner.RUNTIME_ERROR]
+                + ", erreurs d'assemblage : " + counts[BatchRunner.ASSEMBLY_ERROR]
+                + ", fichiers illisibles : " + counts[BatchRunner.IO_ERROR]);
+        System.out.println("  instructions : " + instructions + " en " + (wall / 1_000_000) + " ms ("
+                + (wall > 0 ? instructions * 1_000_000_000L / wall : 0) + " instr/s), temps d'exécution cumulé : "
+                + (cpuNanos / 1_000_000) + " ms");
+    }
+
+    // Champ CSV sur une seule ligne : les erreurs d'assemblage (une par ligne) sont séparées par " | "
+    private static String csvField(String value) {
+        return value.replace(';', ',').replace("\r\n", " | ").replace('\r', ' ').replace("\n", " | ");
+    }
+
+    // Rapport CSV : fichier, code, statut, instructions, cycles, durée et registres finaux
+    private static void writeCsv(List<BatchRunner.Result> results, File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            out.println("fichier;code;statut;instructions;cycles;duree_us;A;B;X;Y;U;S;PC;DP;CC");
+            for (BatchRunner.Result result : results) {
+                StringBuilder line = new StringBuilder();
+                line.append(csvField(String.valueOf(result.file))).append(';').append(result.exitCode).append(';')
+                    .append(csvField(result.status)).append(';')
+                    .append(result.instructions).append(';').append(result.cycles).append(';').append(result.nanos / 1000);
+                if (result.state != null) {
+                    CpuState s = result.state;
+                    line.append(';').append(CpuView.hex8(s.a)).append(';').append(CpuView.hex8(s.b))
+                        .append(';').append(CpuView.hex16(s.x)).append(';').append(CpuView.hex16(s.y))
+                        .append(';').append(CpuView.hex16(s.u)).append(';').append(CpuView.hex16(s.s))
+                        .append(';').append(CpuView.hex16(s.pc)).append(';').append(CpuView.hex8(s.dp))
+                        .append(';').append(CpuView.hex8(s.getCC()));
+                } else {
+                    line.append(";;;;;;;;;");
+                }
+                out.println(line);
+            }
+        }
+    }
+
+    private static String registers(CpuState s) {
+        return "A=" + CpuView.hex8(s.a) + " B=" + CpuView.hex8(s.b)
+                + " X=" + CpuView.hex16(s.x) + " Y=" + CpuView.hex16(s.y) + " CC=" + CpuView.hex8(s.getCC());
+    }
+}
@@ -6,7 +6,6 @@ import cpu.*;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.LinkedHashMap;
 
 public class Main {
 
@@ -17,19 +16,10 @@ public class Main {
         customPanel.setLayout(null);
         Color color = new Color(255, 229, 0); // Couleur principale pour les composants
 
-        // Initialisation des données de la ROM
-        LinkedHashMap<String, String> romData = new LinkedHashMap<>();
-        for (int i = 0; i <= 30; i++) {
-            romData.put(String.format("FE%02X", i), ""); // Adresse FE00 à FE1E
-        }
-        ROM rom = new ROM(170, 250, 235, 315, romData, color); // Création du panneau ROM
-
-        // Initialisation des données de la RAM
-        LinkedHashMap<String, String> ramData = new LinkedHashMap<>();
-        for (int i = 0; i <= 30; i++) {
-            ramData.put(String.format("%04X", i), "00"); // Adresse 0000 à 001E
-        }
-        RAM ram = new RAM(170, 250, 415, 315, ramData, color); // Création du panneau RAM
+        // Espace d'adressage de 64 Ko partagé par la ROM, la RAM et le CPU
+        Memory memory = new Memory();
+        ROM rom = new ROM(170, 250, 235, 315, memory, color); // Création du panneau ROM (FE00 à FE1E)
+        RAM ram = new RAM(170, 250, 415, 315, memory, color); // Création du panneau RAM (0000 à 001E)
 
         // Création des registres principaux
         Registers registreA  = new Registers("A",  "00", 106, 40, 595, 315, color);
@@ -51,6 +41,9 @@ public class Main {
         // Registre I (interruption/control)
         ControlPanel registreI = new ControlPanel("RI", "00", 250, 40, 10, 10, color);
 
+        // Compteur de cycles d'horloge depuis le début du programme
+        ControlPanel cycles = new ControlPanel("CYC", "0", 250, 40, 10, 160, color);
+
         // Affichage binaire des registres A et B
         BitDisplay binA = new BitDisplay("00000000", 80, 20, registreA.panelX + 12, registreA.panelY - 20);
         BitDisplay binB = new BitDisplay("00000000", 80, 20, registreB.panelX + 12, registreB.panelY - 20);
@@ -83,12 +76,13 @@ public class Main {
 
         // Ajout du registre de contrôle et des affichages binaires
         customPanel.add(registreI.generateControPanel());
+        customPanel.add(cycles.generateControPanel());
         customPanel.add(binA.generateBitPanel());
         customPanel.add(binB.generateBitPanel());
 
         // Initialisation du CPU avec tous les composants
         CPU cpu = new CPU(
-            ram, rom,
+            memory, ram, rom,
             registreA, registreB,
             registreX, registreY,
             registreU, registreS,
@@ -96,23 +90,29 @@ public class Main {
             registreI,
             flagN, flagZ, flagV, flagC, flagH,
             alu,
-            binA, binB
+            binA, binB,
+            cycles
         );
 
         // Création de la GUI et liaison des boutons avec les actions CPU
-        SwingUtilities.invokeLater(() -> new GUI(customPanel, new ActionListener() {
+        SwingUtilities.invokeLater(() -> cpu.installBreakpoints(new GUI(customPanel, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
 
-                GUI gui = (GUI) ((JButton) e.getSource()).getTopLevelAncestor();
+                GUI gui = (GUI) ((JComponent) e.getSource()).getTopLevelAncestor();
                 String actionCommand = e.getActionCommand();
 
-                cpu.initializeLines(gui); // Initialisation de la ligne active
-
                 // Déclenchement de l'action en fonction du bouton
                 switch (actionCommand) {
                     case "RUN":  cpu.executeAll(gui);     break;
+                    case "PAUSE":cpu.pauseExecution(gui); break;
+                    case "STOP": cpu.stopExecution(gui);  break;
                     case "STEP": cpu.executeStep(gui);    break;
+                    case "BACK": cpu.executeStepBack(gui); break;
+                    case "REVERSE": cpu.reverseExecution(gui); break;
+                    case "PROFILE": cpu.showProfile(gui); break;
+                    case "HEATMAP": cpu.showHeatmap(gui); break;
+                    case "SPEED":cpu.setSpeed(gui);       break;
                     case "SAVE": cpu.saveProgram(gui);    break;
                     case "CLEAR":cpu.clearProgram(gui);   break;
                     case "NEW":  cpu.createNewFile(gui);  break;
@@ -120,6 +120,6 @@ public class Main {
                     case "EXIT": System.exit(0);   break;
                 }
             }
-        }));
+        })));
     }
 }
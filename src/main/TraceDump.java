@@ -0,0 +1,125 @@
+package main;
+
+import cpu.TraceReader;
+import cpu.TraceWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+// Classe TraceDump
+// Décodage en ligne de commande d'une trace binaire écrite par BatchRunner --trace (voir cpu.TraceWriter) :
+// une ligne par instruction (numéro, cycles, PC, octets, registres après l'instruction, accès mémoire).
+//
+// Utilisation : java main.TraceDump [options] fichier.trace
+//   --from N          commence à l'instruction N (défaut 0)
+//   --count N         affiche au plus N instructions
+//   --pc DEBUT[:FIN]  instructions dont le PC est dans la plage hexadécimale (incluse)
+//   --addr DEBUT[:FIN] instructions qui lisent ou écrivent la mémoire dans la plage hexadécimale
+//   --writes          seulement les écritures en mémoire
+//   --summary         n'affiche que le nombre d'instructions et de cycles de la trace
+public class TraceDump {
+
+    public static void main(String[] args) {
+        long from = 0, count = Long.MAX_VALUE;
+        int pcStart = 0, pcEnd = 0xFFFF, addrStart = -1, addrEnd = -1;
+        boolean writes = false, summary = false;
+        String file = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--from":    from = Long.parseLong(args[++i]); break;
+                    case "--count":   count = Long.parseLong(args[++i]); break;
+                    case "--writes":  writes = true; break;
+                    case "--summary": summary = true; break;
+                    case "--pc": {
+                        int[] range = range(args[++i]);
+                        pcStart = range[0];
+                        pcEnd = range[1];
+                        break;
+                    }
+                    case "--addr": {
+                        int[] range = range(args[++i]);
+                        addrStart = range[0];
+                        addrEnd = range[1];
+                        break;
+                    }
+                    default:
+                        if (args[i].startsWith("--")) throw new IllegalArgumentException("option inconnue : " + args[i]);
+                        if (file != null) throw new IllegalArgumentException("un seul fichier de trace attendu");
+                        file = args[i];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            System.err.println("Erreur : valeur manquante après " + args[args.length - 1]);
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        } catch (IllegalArgumentException e) { // Nombre invalide ou option inconnue
+            System.err.println("Erreur : " + e.getMessage());
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        }
+
+        if (file == null) {
+            usage();
+            System.exit(BatchRunner.USAGE_ERROR);
+        }
+
+        try (TraceReader reader = new TraceReader(Paths.get(file))) {
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+            TraceReader.Record record = new TraceReader.Record();
+            long total = reader.getCount();
+
+            if (summary) {
+                long cycles = 0;
+                if (total > 0) {
+                    long first = reader.read(0, record).cycles;
+                    cycles = reader.read(total - 1, record).cycles - first;
+                }
+                out.println(file + " : " + total + " instructions, " + cycles + " cycles avant la dernière instruction");
+                out.flush();
+                return;
+            }
+
+            long shown = 0;
+            for (long index = Math.max(0, from); index < total && shown < count; index++) {
+                reader.read(index, record);
+                if (record.pc < pcStart || record.pc > pcEnd) continue;
+                if (writes && record.access != TraceWriter.ACCESS_WRITE) continue;
+                if (addrStart >= 0 && !touches(record, addrStart, addrEnd)) continue;
+                out.println(record);
+                shown++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println(file + " : lecture impossible : " + e.getMessage());
+            System.exit(BatchRunner.IO_ERROR);
+        } catch (IllegalArgumentException e) {
+            System.err.println(file + " : " + e.getMessage());
+            System.exit(BatchRunner.IO_ERROR);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Utilisation : java main.TraceDump [--from N] [--count N] [--pc DEBUT[:FIN]] [--addr DEBUT[:FIN]] [--writes] [--summary] fichier.trace");
+    }
+
+    // Plage hexadécimale DEBUT[:FIN] (une seule adresse si FIN est absent)
+    private static int[] range(String text) {
+        String[] parts = text.split(":");
+        int start = Integer.parseInt(parts[0].replace("$", ""), 16);
+        int end = Integer.parseInt(parts[parts.length - 1].replace("$", ""), 16);
+        if (start < 0 || end > 0xFFFF || start > end) throw new IllegalArgumentException("plage invalide : " + text);
+        return new int[] { start, end };
+    }
+
+    // Vrai si l'accès mémoire de l'instruction recouvre la plage (2 octets pour un accès 16 bits)
+    private static boolean touches(TraceReader.Record record, int start, int end) {
+        if (record.access == TraceWriter.ACCESS_NONE) return false;
+        int last = record.wide ? record.address + 1 : record.address;
+        return record.address <= end && last >= start;
+    }
+}
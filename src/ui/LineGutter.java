@@ -0,0 +1,152 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Rectangle2D;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+// Classe LineGutter
+// Marge de l'éditeur de code (en-tête de ligne du JScrollPane) : numéros de ligne, marqueurs
+// (points d'arrêt) et chaleur de chaque ligne (part du temps d'exécution). Seules les lignes
+// visibles sont dessinées ; la position de chaque ligne est demandée à l'éditeur, ce qui reste
+// juste avec le retour à la ligne automatique.
+public class LineGutter extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    // Action au clic sur une ligne (numéro à partir de 0)
+    public interface LineListener {
+        void lineClicked(int line, MouseEvent event);
+    }
+
+    private static final int WIDTH = 48;
+    private static final Color BACKGROUND = new Color(12, 12, 12);
+    private static final Color NUMBER_COLOR = new Color(110, 110, 110);
+    private static final Color HEAT_COLOR = new Color(255, 60, 0);
+    private static final Font NUMBER_FONT = new Font("Source Code Pro", Font.PLAIN, 13);
+
+    private final JTextArea editor;
+    private IntFunction<Color> marker = line -> null; // Couleur du marqueur d'une ligne (null : aucun)
+    private IntToDoubleFunction heat = line -> 0;     // Chaleur d'une ligne, de 0 (froide) à 1 (la plus chaude)
+    private LineListener listener;
+
+    // Constructeur
+    public LineGutter(JTextArea editor) {
+        this.editor = editor;
+        setOpaque(true);
+        setCursor(new Cursor(Cursor.HAND_CURSOR));
+        setToolTipText("Clic : point d'arrêt, Maj + clic ou clic droit : condition");
+
+        // Les numéros suivent le contenu de l'éditeur
+        editor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { changed(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { changed(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { changed(); }
+        });
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (listener == null) return;
+                int line = lineAt(e.getY());
+                if (line >= 0) listener.lineClicked(line, e);
+            }
+        });
+    }
+
+    public void setMarker(IntFunction<Color> marker) {
+        this.marker = marker;
+        repaint();
+    }
+
+    public void setHeat(IntToDoubleFunction heat) {
+        this.heat = heat;
+        repaint();
+    }
+
+    public void setLineListener(LineListener listener) {
+        this.listener = listener;
+    }
+
+    private void changed() {
+        revalidate();
+        repaint();
+    }
+
+    // Même hauteur que l'éditeur : le défilement vertical est partagé
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(WIDTH, editor.getPreferredSize().height);
+    }
+
+    // Ligne affichée à une hauteur (-1 au-delà de la dernière ligne)
+    private int lineAt(int y) {
+        try {
+            int offset = editor.viewToModel2D(new Point(0, y));
+            int line = editor.getLineOfOffset(offset);
+            Rectangle2D bounds = editor.modelToView2D(editor.getLineEndOffset(line));
+            return bounds != null && y > bounds.getMaxY() ? -1 : line;
+        } catch (BadLocationException e) {
+            return -1;
+        }
+    }
+
+    // Rectangle de la première rangée d'une ligne (null si elle n'existe pas)
+    private Rectangle2D lineBounds(int line) {
+        try {
+            return editor.modelToView2D(editor.getLineStartOffset(line));
+        } catch (BadLocationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Rectangle clip = g2.getClipBounds();
+        g2.setColor(BACKGROUND);
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // Lignes visibles seulement
+        int first = Math.max(lineAt(clip.y), 0);
+        int last = lineAt(clip.y + clip.height);
+        if (last < 0) last = editor.getLineCount() - 1;
+
+        g2.setFont(NUMBER_FONT);
+        FontMetrics fm = g2.getFontMetrics();
+        for (int line = first; line <= last; line++) {
+            Rectangle2D bounds = lineBounds(line);
+            if (bounds == null) continue;
+            int top = (int) bounds.getY(), height = (int) bounds.getHeight();
+
+            double level = Math.min(heat.applyAsDouble(line), 1);
+            if (level > 0) { // Chaleur : fond de plus en plus opaque, au moins visible pour une ligne exécutée
+                g2.setColor(new Color(HEAT_COLOR.getRed(), HEAT_COLOR.getGreen(), HEAT_COLOR.getBlue(),
+                        (int) (40 + 200 * level)));
+                g2.fillRect(0, top, WIDTH, height);
+            }
+
+            Color color = marker.apply(line);
+            if (color != null) { // Marqueur : pastille à gauche du numéro
+                int size = Math.min(height - 6, 12);
+                g2.setColor(color);
+                g2.fillOval(4, top + (height - size) / 2, size, size);
+            }
+
+            String number = Integer.toString(line + 1);
+            g2.setColor(NUMBER_COLOR);
+            g2.drawString(number, WIDTH - 6 - fm.stringWidth(number), top + (height + fm.getAscent()) / 2 - 2);
+        }
+        g2.dispose();
+    }
+}